@@ -44,6 +44,7 @@ import com.intellij.openapi.project.ProjectManagerAdapter;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.updateSettings.impl.UpdateChecker;
 import com.intellij.openapi.util.JDOMUtil;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.vfs.CharsetToolkit;
 import com.intellij.openapi.wm.StatusBar;
@@ -67,6 +68,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * This plugin attempts to emulate the key binding and general functionality of Vim and gVim. See the supplied
@@ -115,6 +117,10 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
   @NotNull private final WindowGroup window;
   @NotNull private final EditorGroup editor;
 
+  @NotNull private final SavedGroupState savedMarks;
+  @NotNull private final SavedGroupState savedRegisters;
+  @NotNull private final SavedGroupState savedHistory;
+
   public VimPlugin() {
     motion = new MotionGroup();
     change = new ChangeGroup();
@@ -131,6 +137,15 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
     window = new WindowGroup();
     editor = new EditorGroup();
 
+    savedMarks = new SavedGroupState(mark.getStateTracker(), mark::saveData);
+    savedRegisters = new SavedGroupState(register.getStateTracker(), register::saveData);
+    savedHistory = new SavedGroupState(history.getStateTracker(), history::saveData);
+
+    // The saved state depends on the limits set by these options
+    final Options options = Options.getInstance();
+    options.getOption(Options.VIMINFO).addOptionChangeListener(event -> resetSavedState());
+    options.getOption("history").addOptionChangeListener(event -> resetSavedState());
+
     LOG.debug("VimPlugin ctr");
   }
 
@@ -155,22 +170,30 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
     final TypedAction typedAction = EditorActionManager.getInstance().getTypedAction();
     EventFacade.getInstance().setupTypedActionHandler(new VimTypedActionHandler(typedAction.getRawHandler()));
 
-    // Register vim actions in command mode
+    // Register vim actions in command mode. The key trees of the modes are built when each mode is first used
+    final StartupTimer timer = new StartupTimer();
     RegisterActions.registerActions();
+    timer.phase("actions");
 
     // Add some listeners so we can handle special events
     setupListeners();
+    timer.phase("listeners");
 
-    // Register ex handlers
+    // Register ex handlers. The handlers are created when their commands are first used
     CommandParser.getInstance().registerHandlers();
+    timer.phase("ex commands");
 
     if (!ApplicationManager.getApplication().isUnitTestMode()) {
       final File ideaVimRc = VimScriptParser.findIdeaVimRc();
       if (ideaVimRc != null) {
         VimScriptParser.executeFile(ideaVimRc);
       }
+      timer.phase("ideavimrc");
     }
 
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(timer.toString());
+    }
     LOG.debug("done");
   }
 
@@ -193,10 +216,10 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
     state.setAttribute("enabled", Boolean.toString(enabled));
     element.addContent(state);
 
-    mark.saveData(element);
-    register.saveData(element);
+    savedMarks.saveData(element);
+    savedRegisters.saveData(element);
     search.saveData(element);
-    history.saveData(element);
+    savedHistory.saveData(element);
     key.saveData(element);
     editor.saveData(element);
 
@@ -225,6 +248,47 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
     history.readData(element);
     key.readData(element);
     editor.readData(element);
+
+    resetSavedState();
+  }
+
+  private void resetSavedState() {
+    savedMarks.reset();
+    savedRegisters.reset();
+    savedHistory.reset();
+  }
+
+  /**
+   * The saved state of a group that is serialized again only after the group has been changed. The search, key and
+   * editor groups save just a few elements, so they are written from scratch every time.
+   */
+  private static class SavedGroupState {
+    @NotNull private final ModificationTracker tracker;
+    @NotNull private final Consumer<Element> saver;
+    private long modificationCount = -1;
+    @Nullable private Element saved;
+
+    SavedGroupState(@NotNull ModificationTracker tracker, @NotNull Consumer<Element> saver) {
+      this.tracker = tracker;
+      this.saver = saver;
+    }
+
+    void saveData(@NotNull Element element) {
+      final long count = tracker.getModificationCount();
+      if (saved == null || count != modificationCount) {
+        saved = new Element("ideavim");
+        saver.accept(saved);
+        modificationCount = count;
+      }
+      // The returned state belongs to the caller, so it gets copies of the cached elements
+      for (Object child : saved.getChildren()) {
+        element.addContent((Element)((Element)child).clone());
+      }
+    }
+
+    void reset() {
+      saved = null;
+    }
   }
 
   @NotNull
@@ -530,4 +594,28 @@ public class VimPlugin implements ApplicationComponent, PersistentStateComponent
       }
     }, application);
   }
+
+  /**
+   * Measures the time spent in each phase of the plugin initialization
+   */
+  private static class StartupTimer {
+    @NotNull private final StringBuilder phases = new StringBuilder();
+    private final long start = System.nanoTime();
+    private long phaseStart = start;
+
+    void phase(@NotNull String name) {
+      final long now = System.nanoTime();
+      if (phases.length() > 0) {
+        phases.append(", ");
+      }
+      phases.append(name).append(' ').append(TimeUnit.NANOSECONDS.toMillis(now - phaseStart)).append(" ms");
+      phaseStart = now;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      return "Initialized in " + TimeUnit.NANOSECONDS.toMillis(phaseStart - start) + " ms (" + phases + ")";
+    }
+  }
 }
@@ -19,6 +19,7 @@
 package com.maddyhome.idea.vim.action.change;
 
 import com.intellij.openapi.actionSystem.DataContext;
+import com.intellij.openapi.editor.Caret;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.KeyHandler;
 import com.maddyhome.idea.vim.VimPlugin;
@@ -27,6 +28,7 @@ import com.maddyhome.idea.vim.command.*;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.group.MotionGroup;
 import com.maddyhome.idea.vim.handler.EditorActionHandlerBase;
+import com.maddyhome.idea.vim.helper.CaretData;
 import com.maddyhome.idea.vim.helper.MessageHelper;
 import com.maddyhome.idea.vim.key.OperatorFunction;
 import org.jetbrains.annotations.NotNull;
@@ -54,9 +56,23 @@ public class OperatorAction extends VimCommandAction {
                                 cmd.getRawCount(), argument, true);
               if (range != null) {
                 VimPlugin.getMark().setChangeMarks(editor, range);
+                // The change marks only hold the range of the primary caret
+                final Caret primaryCaret = editor.getCaretModel().getPrimaryCaret();
+                for (Caret caret : editor.getCaretModel().getAllCarets()) {
+                  final TextRange caretRange = caret == primaryCaret ? range : MotionGroup
+                    .getMotionRange(editor, caret, context, cmd.getCount(), cmd.getRawCount(), argument, true);
+                  CaretData.setOperatorRange(caret, caretRange);
+                }
                 final SelectionType selectionType = SelectionType.fromCommandFlags(motion.getFlags());
                 KeyHandler.getInstance().reset(editor);
-                return operatorFunction.apply(editor, context, selectionType);
+                try {
+                  return operatorFunction.apply(editor, context, selectionType);
+                }
+                finally {
+                  for (Caret caret : editor.getCaretModel().getAllCarets()) {
+                    CaretData.setOperatorRange(caret, null);
+                  }
+                }
               }
             }
           }
@@ -26,8 +26,10 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.action.VimCommandAction;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.MappingMode;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.handler.CaretOrder;
+import com.maddyhome.idea.vim.handler.ExecuteMethodNotOverriddenException;
 import com.maddyhome.idea.vim.handler.VisualOperatorActionHandler;
 import com.maddyhome.idea.vim.helper.CharacterHelper;
 import org.jetbrains.annotations.NotNull;
@@ -48,6 +50,16 @@ public class ChangeCaseLowerVisualAction extends VimCommandAction {
         final Editor topLevelEditor = InjectedLanguageUtil.getTopLevelEditor(editor);
         return VimPlugin.getChange().changeCaseRange(topLevelEditor, caret, range, CharacterHelper.CASE_LOWER);
       }
+
+      @Override
+      protected int plan(@NotNull Editor editor, @NotNull Caret caret, @NotNull Command cmd, @NotNull TextRange range,
+                         @NotNull TextEdits edits) throws ExecuteMethodNotOverriddenException {
+        // The offsets of an injected fragment don't match the ones of the document the batch is applied to
+        if (InjectedLanguageUtil.getTopLevelEditor(editor) != editor) {
+          throw new ExecuteMethodNotOverriddenException(getClass());
+        }
+        return VimPlugin.getChange().planChangeCaseRange(editor, range, CharacterHelper.CASE_LOWER, edits);
+      }
     });
   }
 
@@ -24,6 +24,7 @@ import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.actionSystem.EditorAction;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.Argument;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.handler.CaretOrder;
 import com.maddyhome.idea.vim.handler.ChangeEditorActionHandler;
 import org.jetbrains.annotations.NotNull;
@@ -46,5 +47,11 @@ public class ChangeCaseToggleCharacterAction extends EditorAction {
                            int rawCount, @Nullable Argument argument) {
       return VimPlugin.getChange().changeCaseToggleCharacter(editor, caret, count);
     }
+
+    @Override
+    protected int plan(@NotNull Editor editor, @NotNull Caret caret, int count, int rawCount,
+                       @Nullable Argument argument, @NotNull TextEdits edits) {
+      return VimPlugin.getChange().planChangeCaseToggleCharacter(editor, caret, count, edits);
+    }
   }
 }
@@ -25,6 +25,7 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.action.VimCommandAction;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.MappingMode;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.handler.CaretOrder;
 import com.maddyhome.idea.vim.handler.VisualOperatorActionHandler;
@@ -45,6 +46,12 @@ public class ChangeCaseUpperVisualAction extends VimCommandAction {
                                 @NotNull Command cmd, @NotNull TextRange range) {
         return VimPlugin.getChange().changeCaseRange(editor, caret, range, CharacterHelper.CASE_UPPER);
       }
+
+      @Override
+      protected int plan(@NotNull Editor editor, @NotNull Caret caret, @NotNull Command cmd, @NotNull TextRange range,
+                         @NotNull TextEdits edits) {
+        return VimPlugin.getChange().planChangeCaseRange(editor, range, CharacterHelper.CASE_UPPER, edits);
+      }
     });
   }
 
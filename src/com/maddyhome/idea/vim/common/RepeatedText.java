@@ -0,0 +1,89 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.common;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A text repeated a number of times, e.g. the payload of 1000p.
+ * <p>
+ * The repetitions are a read-only view of the original text, so a large count doesn't build the whole payload as a
+ * temporary string before it's inserted into the document.
+ */
+public class RepeatedText implements CharSequence {
+  @NotNull private final CharSequence text;
+  private final int length;
+
+  public RepeatedText(@NotNull CharSequence text, int count) {
+    final long length = (long)text.length() * Math.max(count, 0);
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Repeated text is too long: " + length);
+    }
+    this.text = text;
+    this.length = (int)length;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index " + index + ", length " + length);
+    }
+    return text.charAt(index % text.length());
+  }
+
+  @NotNull
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("Range " + start + ".." + end + ", length " + length);
+    }
+    if (start == end) {
+      return "";
+    }
+    final int textLength = text.length();
+    if (start % textLength == 0 && end % textLength == 0) {
+      return new RepeatedText(text, (end - start) / textLength);
+    }
+    return appendTo(new StringBuilder(end - start), start, end).toString();
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return appendTo(new StringBuilder(length), 0, length).toString();
+  }
+
+  @NotNull
+  private StringBuilder appendTo(@NotNull StringBuilder builder, int start, int end) {
+    final int textLength = text.length();
+    int offset = start;
+    while (offset < end) {
+      final int textOffset = offset % textLength;
+      final int chunk = Math.min(textLength - textOffset, end - offset);
+      builder.append(text, textOffset, textOffset + chunk);
+      offset += chunk;
+    }
+    return builder;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A list of non-overlapping text replacements, all computed against the same unmodified document.
+ * <p>
+ * Offsets always refer to the document as it was before any of the edits were applied. The edits are applied by
+ * {@link com.maddyhome.idea.vim.group.ChangeGroup#applyEdits} from the highest offset down, so no edit has to
+ * account for the others. Insertions at the same offset end up in the order they were added.
+ */
+public class TextEdits {
+  public TextEdits() {
+    this(16);
+  }
+
+  public TextEdits(int capacity) {
+    starts = new int[Math.max(capacity, 1)];
+    ends = new int[starts.length];
+    texts = new CharSequence[starts.length];
+  }
+
+  public void insert(int offset, @NotNull CharSequence text) {
+    replace(offset, offset, text);
+  }
+
+  public void delete(int start, int end) {
+    replace(start, end, "");
+  }
+
+  public void replace(int start, int end, @NotNull CharSequence text) {
+    if (start == end && text.length() == 0) {
+      return;
+    }
+    if (size == starts.length) {
+      final int capacity = size * 2;
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      texts = Arrays.copyOf(texts, capacity);
+    }
+    if (size > 0 && start < starts[size - 1]) {
+      sorted = false;
+    }
+    starts[size] = start;
+    ends[size] = end;
+    texts[size] = text;
+    textLength += text.length();
+    size++;
+  }
+
+  /**
+   * Removes all the edits, e.g. once they have been applied
+   */
+  public void clear() {
+    Arrays.fill(texts, 0, size, null);
+    size = 0;
+    textLength = 0;
+    sorted = true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int getStartOffset(int index) {
+    sort();
+    return starts[index];
+  }
+
+  public int getEndOffset(int index) {
+    sort();
+    return ends[index];
+  }
+
+  @NotNull
+  public CharSequence getText(int index) {
+    sort();
+    return texts[index];
+  }
+
+  /**
+   * @return The lowest offset touched by any of the edits
+   */
+  public int getStartOffset() {
+    return getStartOffset(0);
+  }
+
+  /**
+   * @return The highest offset touched by any of the edits, in the coordinates of the unmodified document
+   */
+  public int getEndOffset() {
+    sort();
+    int res = 0;
+    for (int i = 0; i < size; i++) {
+      res = Math.max(res, ends[i]);
+    }
+    return res;
+  }
+
+  /**
+   * @return The total length of the text inserted by the edits
+   */
+  public int getTextLength() {
+    return textLength;
+  }
+
+  /**
+   * @return The change in document length once all the edits are applied
+   */
+  public int getLengthDelta() {
+    int res = 0;
+    for (int i = 0; i < size; i++) {
+      res += texts[i].length() - (ends[i] - starts[i]);
+    }
+    return res;
+  }
+
+  /**
+   * @return true if some of the edits overlap, such edits can't be applied as one batch
+   */
+  public boolean hasOverlaps() {
+    sort();
+    for (int i = 1; i < size; i++) {
+      if (starts[i] < ends[i - 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Converts an offset of the unmodified document to the matching offset once all edits have been applied. Offsets
+   * inside a replaced range are moved to its start.
+   */
+  public int shiftOffset(int offset) {
+    sort();
+    int res = offset;
+    for (int i = 0; i < size && starts[i] <= offset; i++) {
+      if (ends[i] <= offset && !(starts[i] == offset && ends[i] == offset)) {
+        res += texts[i].length() - (ends[i] - starts[i]);
+      }
+      else {
+        res -= offset - starts[i];
+        break;
+      }
+    }
+    return res;
+  }
+
+  private void sort() {
+    if (sorted) {
+      return;
+    }
+
+    // The sort is stable so edits at the same offset stay in the order they were added
+    final Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingInt(i -> starts[i]));
+
+    final int[] sortedStarts = new int[starts.length];
+    final int[] sortedEnds = new int[ends.length];
+    final CharSequence[] sortedTexts = new CharSequence[texts.length];
+    for (int i = 0; i < size; i++) {
+      sortedStarts[i] = starts[order[i]];
+      sortedEnds[i] = ends[order[i]];
+      sortedTexts[i] = texts[order[i]];
+    }
+    starts = sortedStarts;
+    ends = sortedEnds;
+    texts = sortedTexts;
+    sorted = true;
+  }
+
+  @NotNull
+  public String toString() {
+    sort();
+    final StringBuilder res = new StringBuilder("TextEdits[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        res.append(", ");
+      }
+      res.append(starts[i]).append('-').append(ends[i]).append(":\"").append(texts[i]).append('"');
+    }
+    return res.append(']').toString();
+  }
+
+  private int[] starts;
+  private int[] ends;
+  private CharSequence[] texts;
+  private int size;
+  private int textLength;
+  private boolean sorted = true;
+}
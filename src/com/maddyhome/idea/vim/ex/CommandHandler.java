@@ -33,7 +33,8 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 
 /**
- * Base class for all Ex command handlers.
+ * Base class for all Ex command handlers. Handlers don't register themselves, the parser creates the handlers of its
+ * command table on first use, see {@link CommandParser#registerHandlers()} and {@link CommandParser#addHandler}.
  */
 public abstract class CommandHandler {
   /**
@@ -105,8 +106,6 @@ public abstract class CommandHandler {
 
     myRunForEachCaret = false;
     myCaretOrder = CaretOrder.NATIVE;
-
-    CommandParser.getInstance().addHandler(this);
   }
 
   public CommandHandler(@Nullable CommandName[] names, int argFlags, int optFlags, boolean runForEachCaret, CaretOrder caretOrder) {
@@ -116,8 +115,6 @@ public abstract class CommandHandler {
 
     myRunForEachCaret = runForEachCaret;
     myCaretOrder = caretOrder;
-
-    CommandParser.getInstance().addHandler(this);
   }
 
   /**
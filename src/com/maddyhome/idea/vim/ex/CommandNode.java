@@ -22,21 +22,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.function.Supplier;
 
 /**
- *
+ * A node of the Ex command name tree. The handler is looked up through a supplier so handlers can be created the first
+ * time their command is used.
  */
 public class CommandNode {
   public CommandNode() {
     command = null;
   }
 
-  public CommandNode(@Nullable CommandHandler command) {
+  public CommandNode(@Nullable Supplier<CommandHandler> command) {
     this.command = command;
   }
 
   @NotNull
-  public CommandNode addChild(char ch, CommandHandler command) {
+  public CommandNode addChild(char ch, @Nullable Supplier<CommandHandler> command) {
     CommandNode res = new CommandNode(command);
     nodes.put(ch, res);
 
@@ -49,13 +51,17 @@ public class CommandNode {
 
   @Nullable
   public CommandHandler getCommandHandler() {
-    return command;
+    return command != null ? command.get() : null;
+  }
+
+  public boolean hasCommandHandler() {
+    return command != null;
   }
 
-  public void setCommandHandler(CommandHandler command) {
+  public void setCommandHandler(@Nullable Supplier<CommandHandler> command) {
     this.command = command;
   }
 
-  @Nullable private CommandHandler command;
+  @Nullable private Supplier<CommandHandler> command;
   @NotNull private final HashMap<Character, CommandNode> nodes = new HashMap<Character, CommandNode>();
 }
@@ -32,6 +32,9 @@ import com.maddyhome.idea.vim.helper.Msg;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -65,64 +68,65 @@ public class CommandParser {
   }
 
   /**
-   * Registers all the supported Ex commands
+   * Registers all the supported Ex commands. Only the command names are added here, the handlers are created when
+   * their command is used for the first time.
    */
   public void registerHandlers() {
     if (registered) return;
 
-    new ActionListHandler();
-    new AsciiHandler();
-    new CmdFilterHandler();
-    new CopyTextHandler();
-    new DeleteLinesHandler();
-    new DigraphHandler();
-    new DumpLineHandler();
-    new EditFileHandler();
-    new ActionHandler();
-    new EchoHandler();
-    new ExitHandler();
-    new FindClassHandler();
-    new FindFileHandler();
-    new FindSymbolHandler();
-    new GotoCharacterHandler();
-    //new GotoLineHandler(); - not needed here
-    new HelpHandler();
-    new HistoryHandler();
-    new JoinLinesHandler();
-    new JumpsHandler();
-    new LetHandler();
-    new MapHandler();
-    new MarkHandler();
-    new MarksHandler();
-    new MoveTextHandler();
-    new NextFileHandler();
-    new NoHLSearchHandler();
-    new OnlyHandler();
-    new PreviousFileHandler();
-    new PromptFindHandler();
-    new PromptReplaceHandler();
-    new PutLinesHandler();
-    new QuitHandler();
-    new RedoHandler();
-    new RegistersHandler();
-    new RepeatHandler();
-    new SelectFileHandler();
-    new SelectFirstFileHandler();
-    new SelectLastFileHandler();
-    new SetHandler();
-    new ShiftLeftHandler();
-    new ShiftRightHandler();
-    new SourceHandler();
-    new SortHandler();
-    new SplitHandler();
-    new SubstituteHandler();
-    new UndoHandler();
-    new WriteAllHandler();
-    new WriteHandler();
-    new WriteNextFileHandler();
-    new WritePreviousFileHandler();
-    new WriteQuitHandler();
-    new YankLinesHandler();
+    addLazyHandler(ActionListHandler::new, ActionListHandler.COMMAND_NAMES);
+    addLazyHandler(AsciiHandler::new, AsciiHandler.COMMAND_NAMES);
+    addLazyHandler(CmdFilterHandler::new, CmdFilterHandler.COMMAND_NAMES);
+    addLazyHandler(CopyTextHandler::new, CopyTextHandler.COMMAND_NAMES);
+    addLazyHandler(DeleteLinesHandler::new, DeleteLinesHandler.COMMAND_NAMES);
+    addLazyHandler(DigraphHandler::new, DigraphHandler.COMMAND_NAMES);
+    addLazyHandler(DumpLineHandler::new, DumpLineHandler.COMMAND_NAMES);
+    addLazyHandler(EditFileHandler::new, EditFileHandler.COMMAND_NAMES);
+    addLazyHandler(ActionHandler::new, ActionHandler.COMMAND_NAMES);
+    addLazyHandler(EchoHandler::new, EchoHandler.COMMAND_NAMES);
+    addLazyHandler(ExitHandler::new, ExitHandler.COMMAND_NAMES);
+    addLazyHandler(FindClassHandler::new, FindClassHandler.COMMAND_NAMES);
+    addLazyHandler(FindFileHandler::new, FindFileHandler.COMMAND_NAMES);
+    addLazyHandler(FindSymbolHandler::new, FindSymbolHandler.COMMAND_NAMES);
+    addLazyHandler(GotoCharacterHandler::new, GotoCharacterHandler.COMMAND_NAMES);
+    addLazyHandler(GlobalHandler::new, GlobalHandler.COMMAND_NAMES);
+    addLazyHandler(HelpHandler::new, HelpHandler.COMMAND_NAMES);
+    addLazyHandler(HistoryHandler::new, HistoryHandler.COMMAND_NAMES);
+    addLazyHandler(JoinLinesHandler::new, JoinLinesHandler.COMMAND_NAMES);
+    addLazyHandler(JumpsHandler::new, JumpsHandler.COMMAND_NAMES);
+    addLazyHandler(LetHandler::new, LetHandler.COMMAND_NAMES);
+    addLazyHandler(MapHandler::new, MapHandler.COMMAND_NAMES);
+    addLazyHandler(MarkHandler::new, MarkHandler.COMMAND_NAMES);
+    addLazyHandler(MarksHandler::new, MarksHandler.COMMAND_NAMES);
+    addLazyHandler(MoveTextHandler::new, MoveTextHandler.COMMAND_NAMES);
+    addLazyHandler(NextFileHandler::new, NextFileHandler.COMMAND_NAMES);
+    addLazyHandler(NoHLSearchHandler::new, NoHLSearchHandler.COMMAND_NAMES);
+    addLazyHandler(OnlyHandler::new, OnlyHandler.COMMAND_NAMES);
+    addLazyHandler(PreviousFileHandler::new, PreviousFileHandler.COMMAND_NAMES);
+    addLazyHandler(PromptFindHandler::new, PromptFindHandler.COMMAND_NAMES);
+    addLazyHandler(PromptReplaceHandler::new, PromptReplaceHandler.COMMAND_NAMES);
+    addLazyHandler(PutLinesHandler::new, PutLinesHandler.COMMAND_NAMES);
+    addLazyHandler(QuitHandler::new, QuitHandler.COMMAND_NAMES);
+    addLazyHandler(RedoHandler::new, RedoHandler.COMMAND_NAMES);
+    addLazyHandler(RegistersHandler::new, RegistersHandler.COMMAND_NAMES);
+    addLazyHandler(RepeatHandler::new, RepeatHandler.COMMAND_NAMES);
+    addLazyHandler(SelectFileHandler::new, SelectFileHandler.COMMAND_NAMES);
+    addLazyHandler(SelectFirstFileHandler::new, SelectFirstFileHandler.COMMAND_NAMES);
+    addLazyHandler(SelectLastFileHandler::new, SelectLastFileHandler.COMMAND_NAMES);
+    addLazyHandler(SetHandler::new, SetHandler.COMMAND_NAMES);
+    addLazyHandler(ShiftLeftHandler::new, ShiftLeftHandler.COMMAND_NAMES);
+    addLazyHandler(ShiftRightHandler::new, ShiftRightHandler.COMMAND_NAMES);
+    addLazyHandler(SourceHandler::new, SourceHandler.COMMAND_NAMES);
+    addLazyHandler(SortHandler::new, SortHandler.COMMAND_NAMES);
+    addLazyHandler(SplitHandler::new, SplitHandler.COMMAND_NAMES);
+    addLazyHandler(SubstituteHandler::new, SubstituteHandler.COMMAND_NAMES);
+    addLazyHandler(UndoHandler::new, UndoHandler.COMMAND_NAMES);
+    addLazyHandler(WriteAllHandler::new, WriteAllHandler.COMMAND_NAMES);
+    addLazyHandler(WriteHandler::new, WriteHandler.COMMAND_NAMES);
+    addLazyHandler(WriteNextFileHandler::new, WriteNextFileHandler.COMMAND_NAMES);
+    addLazyHandler(WritePreviousFileHandler::new, WritePreviousFileHandler.COMMAND_NAMES);
+    addLazyHandler(WriteQuitHandler::new, WriteQuitHandler.COMMAND_NAMES);
+    addLazyHandler(YankLinesHandler::new, YankLinesHandler.COMMAND_NAMES);
 
     registered = true;
     //logger.debug("root=" + root);
@@ -203,7 +207,10 @@ public class CommandParser {
     final String cmd = command.getCommand();
     // If there is no command, just a range, use the 'goto line' handler
     if (cmd.length() == 0) {
-      return new GotoLineHandler();
+      if (gotoLineHandler == null) {
+        gotoLineHandler = new GotoLineHandler();
+      }
+      return gotoLineHandler;
     }
     // See if the user entered a supported command by checking each character entered
     CommandNode node = root;
@@ -225,6 +232,23 @@ public class CommandParser {
    */
   @NotNull
   public ExCommand parse(@NotNull String cmd) throws ExException {
+    // Commands from mappings and repeats are parsed once. The cached command is never executed itself because its
+    // ranges keep the lines they were evaluated to
+    ExCommand parsed;
+    synchronized (parsedCommands) {
+      parsed = parsedCommands.get(cmd);
+    }
+    if (parsed == null) {
+      parsed = parseCommand(cmd);
+      synchronized (parsedCommands) {
+        parsedCommands.put(cmd, parsed);
+      }
+    }
+    return new ExCommand(new Ranges(parsed.getRanges()), parsed.getCommand(), parsed.getArgument());
+  }
+
+  @NotNull
+  private ExCommand parseCommand(@NotNull String cmd) throws ExException {
     // This is a complicated state machine that should probably be rewritten
     if (logger.isDebugEnabled()) {
       logger.debug("processing `" + cmd + "'");
@@ -233,7 +257,7 @@ public class CommandParser {
     Ranges ranges = new Ranges(); // The list of ranges
     StringBuilder command = new StringBuilder(); // The command
     StringBuilder argument = new StringBuilder(); // The command's argument(s)
-    StringBuffer location = null; // The current range text
+    final StringBuilder location = new StringBuilder(); // The current range text
     int offsetSign = 1; // Sign of current range offset
     int offsetNumber = 0; // The value of the current range offset
     int offsetTotal = 0; // The sum of all the current range offsets
@@ -283,7 +307,7 @@ public class CommandParser {
             reprocess = false;
             break;
           case STATE_RANGE: // Starting a new range
-            location = new StringBuffer();
+            location.setLength(0);
             offsetTotal = 0;
             offsetNumber = 0;
             move = false;
@@ -551,16 +575,23 @@ public class CommandParser {
   }
 
   /**
-   * Adds a command handler to the parser
+   * Adds a command handler that isn't part of the command table to the parser
    *
    * @param handler The new handler to add
    */
   public void addHandler(@NotNull CommandHandler handler) {
-    // Iterator through each command name alias
-    CommandName[] names = handler.getNames();
-    if (names == null) {
-      return;
+    final CommandName[] names = handler.getNames();
+    if (names != null) {
+      addNames(names, () -> handler);
     }
+  }
+
+  private void addLazyHandler(@NotNull Supplier<CommandHandler> factory, @NotNull CommandName[] names) {
+    addNames(names, new LazyHandler(factory));
+  }
+
+  private void addNames(@NotNull CommandName[] names, @NotNull Supplier<CommandHandler> handler) {
+    // Iterator through each command name alias
     for (CommandName name : names) {
       CommandNode node = root;
       String text = name.getRequired();
@@ -591,7 +622,7 @@ public class CommandParser {
         if (cn == null) {
           cn = node.addChild(text.charAt(i), handler);
         }
-        else if (cn.getCommandHandler() == null) {
+        else if (!cn.hasCommandHandler()) {
           cn.setCommandHandler(handler);
         }
 
@@ -600,11 +631,41 @@ public class CommandParser {
     }
   }
 
+  /**
+   * Creates its handler the first time it is requested
+   */
+  private static class LazyHandler implements Supplier<CommandHandler> {
+    @NotNull private final Supplier<CommandHandler> factory;
+    @Nullable private CommandHandler handler;
+
+    LazyHandler(@NotNull Supplier<CommandHandler> factory) {
+      this.factory = factory;
+    }
+
+    @NotNull
+    @Override
+    public CommandHandler get() {
+      if (handler == null) {
+        handler = factory.get();
+      }
+      return handler;
+    }
+  }
+
   @NotNull private final CommandNode root = new CommandNode();
   private boolean registered = false;
+  @Nullable private CommandHandler gotoLineHandler = null;
+  @NotNull private final Map<String, ExCommand> parsedCommands = new LinkedHashMap<String, ExCommand>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, ExCommand> eldest) {
+      return size() > PARSED_COMMANDS_SIZE;
+    }
+  };
 
   private static CommandParser ourInstance;
 
+  private static final int PARSED_COMMANDS_SIZE = 100;
+
   private static final int STATE_START = 1;
   private static final int STATE_COMMAND = 10;
   private static final int STATE_CMD_ARG = 11;
@@ -21,10 +21,13 @@ package com.maddyhome.idea.vim.ex;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.helper.EditorData;
+import com.maddyhome.idea.vim.helper.EditorHelper;
 import com.maddyhome.idea.vim.ui.ExOutputPanel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Iterator;
+
 /**
  * @author vlan
  */
@@ -53,6 +56,32 @@ public class ExOutputModel {
     }
   }
 
+  /**
+   * Shows a listing row by row. The panel only takes the rows it displays from the iterator, so the rest of them are
+   * never built unless the user pages down to them. In unit test mode all the rows are joined into the text.
+   */
+  public void output(@NotNull Iterator<String> rows) {
+    if (ApplicationManager.getApplication().isUnitTestMode()) {
+      final StringBuilder builder = new StringBuilder();
+      while (rows.hasNext()) {
+        builder.append(rows.next()).append('\n');
+      }
+      myText = builder.toString();
+    }
+    else {
+      myText = null;
+      ExOutputPanel.getInstance(myEditor).setRows(rows);
+    }
+  }
+
+  /**
+   * @return The number of columns a row may use before its value should be cut, like Vim does for :registers
+   */
+  public int getWidth() {
+    final int width = EditorHelper.getScreenWidth(myEditor);
+    return width > 0 ? width : DEFAULT_WIDTH;
+  }
+
   public void clear() {
     myText = null;
     if (!ApplicationManager.getApplication().isUnitTestMode()) {
@@ -60,8 +89,13 @@ public class ExOutputModel {
     }
   }
 
+  /**
+   * @return The text of the last output. Rows shown outside of unit test mode are kept by the panel only
+   */
   @Nullable
   public String getText() {
     return myText;
   }
+
+  private static final int DEFAULT_WIDTH = 80;
 }
@@ -0,0 +1,81 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2016 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.ex;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * The rows of a listing such as :registers or :marks.
+ * <p>
+ * Rows are built only when they are requested, so {@link ExOutputModel#output(Iterator)} renders just the rows that
+ * are paged into view instead of the whole listing.
+ */
+public class ExOutputRows implements Iterator<String> {
+  @NotNull private final Deque<Section> mySections = new ArrayDeque<>();
+
+  @NotNull
+  public ExOutputRows add(@NotNull String row) {
+    return add(1, index -> row);
+  }
+
+  /**
+   * Adds count rows, built by the renderer from their index when they are needed
+   */
+  @NotNull
+  public ExOutputRows add(int count, @NotNull IntFunction<String> renderer) {
+    if (count > 0) {
+      mySections.add(new Section(count, renderer));
+    }
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!mySections.isEmpty() && mySections.peek().next >= mySections.peek().count) {
+      mySections.poll();
+    }
+    return !mySections.isEmpty();
+  }
+
+  @Override
+  public String next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final Section section = mySections.peek();
+    return section.renderer.apply(section.next++);
+  }
+
+  private static class Section {
+    private final int count;
+    @NotNull private final IntFunction<String> renderer;
+    private int next = 0;
+
+    public Section(int count, @NotNull IntFunction<String> renderer) {
+      this.count = count;
+      this.renderer = renderer;
+    }
+  }
+}
@@ -43,6 +43,13 @@ public class Ranges {
     ranges = new ArrayList<>();
   }
 
+  /**
+   * Creates unprocessed ranges from the same range specifications
+   */
+  Ranges(@NotNull Ranges other) {
+    ranges = new ArrayList<>(other.ranges);
+  }
+
   /**
    * Adds a range to the list
    *
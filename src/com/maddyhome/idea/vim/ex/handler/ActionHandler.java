@@ -28,6 +28,7 @@ import com.maddyhome.idea.vim.KeyHandler;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.CommandState;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.helper.UiHelper;
@@ -37,8 +38,12 @@ import org.jetbrains.annotations.NotNull;
  * @author smartbomb
  */
 public class ActionHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("action", "")
+  };
+
   public ActionHandler() {
-    super("action", "", RANGE_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull final DataContext context,
@@ -22,6 +22,7 @@ import com.intellij.openapi.actionSystem.*;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.util.text.StringUtil;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.ex.ExOutputModel;
@@ -35,8 +36,12 @@ import java.util.List;
  * @author smartbomb
  */
 public class ActionListHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("actionlist", "")
+  };
+
   public ActionListHandler() {
-    super("actionlist", "", RANGE_FORBIDDEN | DONT_REOPEN | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | DONT_REOPEN | ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull final DataContext context,
@@ -22,6 +22,7 @@ import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import org.jetbrains.annotations.NotNull;
 
@@ -29,8 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class AsciiHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("as", "cii")
+  };
+
   public AsciiHandler() {
-    super("as", "cii", ARGUMENT_FORBIDDEN | RANGE_FORBIDDEN);
+    super(COMMAND_NAMES, ARGUMENT_FORBIDDEN | RANGE_FORBIDDEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
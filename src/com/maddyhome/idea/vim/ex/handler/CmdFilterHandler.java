@@ -34,8 +34,12 @@ import java.io.IOException;
  *
  */
 public class CmdFilterHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("!", "")
+  };
+
   public CmdFilterHandler() {
-    super("!", "", RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
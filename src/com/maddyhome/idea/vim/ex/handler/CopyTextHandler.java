@@ -36,11 +36,13 @@ import java.util.List;
  *
  */
 public class CopyTextHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("co", "py"),
+    new CommandName("t", "")
+  };
+
   public CopyTextHandler() {
-    super(new CommandName[]{
-      new CommandName("co", "py"),
-      new CommandName("t", "")
-    }, RANGE_OPTIONAL | ARGUMENT_REQUIRED | WRITABLE);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_REQUIRED | WRITABLE);
   }
 
   @Override
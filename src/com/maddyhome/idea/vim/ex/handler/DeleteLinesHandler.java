@@ -25,6 +25,7 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.SelectionType;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.handler.CaretOrder;
@@ -34,8 +35,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class DeleteLinesHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("d", "elete")
+  };
+
   public DeleteLinesHandler() {
-    super("d", "elete", RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE, true, CaretOrder.DECREASING_OFFSET);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE, true, CaretOrder.DECREASING_OFFSET);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull Caret caret, @NotNull DataContext context,
@@ -23,6 +23,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import org.jetbrains.annotations.NotNull;
@@ -31,8 +32,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class DigraphHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("dig", "raphs")
+  };
+
   public DigraphHandler() {
-    super("dig", "raphs", ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
@@ -28,10 +28,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class DumpLineHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("dump", "line")
+  };
+
   public DumpLineHandler() {
-    super(new CommandName[]{
-      new CommandName("dump", "line")
-    }, RANGE_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
@@ -21,6 +21,7 @@ package com.maddyhome.idea.vim.ex.handler;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.ex.ExOutputModel;
@@ -35,8 +36,12 @@ import java.util.Map;
  */
 public class EchoHandler extends CommandHandler {
 
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("ec", "ho")
+  };
+
   public EchoHandler() {
-    super("ec", "ho", RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
   }
 
   @Override
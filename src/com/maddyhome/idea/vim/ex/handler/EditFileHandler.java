@@ -31,11 +31,13 @@ import com.maddyhome.idea.vim.helper.EditorDataContext;
 import org.jetbrains.annotations.NotNull;
 
 public class EditFileHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("bro", "wse"),
+    new CommandName("e", "dit")
+  };
+
   public EditFileHandler() {
-    super(new CommandName[]{
-      new CommandName("bro", "wse"),
-      new CommandName("e", "dit")
-    }, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull final Editor editor, @NotNull final DataContext context,
@@ -31,13 +31,15 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class ExitHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("qa", "ll"),
+    new CommandName("quita", "ll"),
+    new CommandName("wqa", "ll"),
+    new CommandName("xa", "ll")
+  };
+
   public ExitHandler() {
-    super(new CommandName[]{
-      new CommandName("qa", "ll"),
-      new CommandName("quita", "ll"),
-      new CommandName("wqa", "ll"),
-      new CommandName("xa", "ll")
-    }, DONT_REOPEN);
+    super(COMMAND_NAMES, DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
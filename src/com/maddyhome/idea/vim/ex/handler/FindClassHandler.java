@@ -24,6 +24,7 @@ import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.KeyHandler;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import org.jetbrains.annotations.NotNull;
@@ -32,8 +33,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class FindClassHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("cla", "ss")
+  };
+
   public FindClassHandler() {
-    super("cla", "ss", RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull final DataContext context, @NotNull ExCommand cmd) throws ExException {
@@ -0,0 +1,235 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2016 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.ex.handler;
+
+import com.intellij.openapi.actionSystem.DataContext;
+import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.util.Ref;
+import com.maddyhome.idea.vim.VimPlugin;
+import com.maddyhome.idea.vim.ex.*;
+import com.maddyhome.idea.vim.group.MotionGroup;
+import com.maddyhome.idea.vim.helper.EditorData;
+import com.maddyhome.idea.vim.helper.EditorHelper;
+import com.maddyhome.idea.vim.helper.MessageHelper;
+import com.maddyhome.idea.vim.helper.Msg;
+import com.maddyhome.idea.vim.helper.RunnableHelper;
+import com.maddyhome.idea.vim.regexp.CharPointer;
+import com.maddyhome.idea.vim.regexp.CharacterClasses;
+import com.maddyhome.idea.vim.regexp.RegExp;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Runs a command on the lines that match a pattern, see :help :global.
+ * <p>
+ * All matching lines are marked first. The markers follow their lines while the command changes the document, and the
+ * lines that get deleted or joined into another line are skipped. The command is then run once per marked line, all in
+ * one undoable write command.
+ */
+public class GlobalHandler extends CommandHandler {
+  private boolean running = false;
+
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("g", "lobal"),
+    new CommandName("v", "global")
+  };
+
+  public GlobalHandler() {
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_REQUIRED);
+  }
+
+  @Override
+  public boolean execute(@NotNull Editor editor, @NotNull DataContext context,
+                         @NotNull ExCommand cmd) throws ExException {
+    if (running) {
+      VimPlugin.showMessage(MessageHelper.message(Msg.E147));
+      return false;
+    }
+
+    String argument = cmd.getArgument();
+    boolean invert = cmd.getCommand().startsWith("v");
+    if (argument.startsWith("!")) {
+      invert = true;
+      argument = argument.substring(1);
+    }
+    if (argument.isEmpty()) {
+      VimPlugin.showMessage(MessageHelper.message(Msg.e_argreq));
+      return false;
+    }
+
+    // Split the argument into the pattern and the command
+    final char delimiter = argument.charAt(0);
+    if (CharacterClasses.isAlpha(delimiter) || delimiter == '\\' || delimiter == '"' || delimiter == '|') {
+      VimPlugin.showMessage(MessageHelper.message(Msg.E146));
+      return false;
+    }
+    CharPointer ptr = new CharPointer(new StringBuffer(argument)).ref(1);
+    final CharPointer pat = ptr.ref(0);
+    ptr = RegExp.skip_regexp(ptr, delimiter, true);
+    if (ptr.charAt() == delimiter) {
+      ptr.set('\u0000').inc();
+    }
+    final String pattern = pat.toString();
+    final String command = ptr.toString().trim();
+
+    final CommandParser parser = CommandParser.getInstance();
+    @Nullable final CommandHandler handler;
+    if (command.isEmpty()) {
+      handler = null;
+    }
+    else {
+      handler = parser.getCommandHandler(parser.parse(command));
+      if (handler == null) {
+        throw new InvalidCommandException(MessageHelper.message(Msg.NOT_EX_CMD, command), command);
+      }
+      if (handler instanceof GlobalHandler) {
+        VimPlugin.showMessage(MessageHelper.message(Msg.E147));
+        return false;
+      }
+    }
+
+    // The default range is the whole file
+    final int startLine;
+    final int endLine;
+    if (cmd.getRanges().size() == 0) {
+      startLine = 0;
+      endLine = EditorHelper.getLineCount(editor) - 1;
+    }
+    else {
+      final LineRange range = cmd.getLineRange(editor, context);
+      startLine = range.getStartLine();
+      endLine = range.getEndLine();
+    }
+
+    final int[] lines = VimPlugin.getSearch().findMatchingLines(editor, pattern, startLine, endLine, invert);
+    if (lines == null) {
+      return false;
+    }
+    if (lines.length == 0) {
+      VimPlugin.showMessage(MessageHelper.message(Msg.e_patnotf2, VimPlugin.getSearch().getLastSearch()));
+      return false;
+    }
+
+    final boolean[] afterBreak = new boolean[lines.length];
+    final RangeMarker[] markers = markLines(editor.getDocument(), lines, afterBreak);
+    final Ref<Boolean> result = Ref.create(true);
+    final Ref<ExException> error = Ref.create();
+    running = true;
+    try {
+      RunnableHelper.runWriteCommand(editor.getProject(), () -> {
+        try {
+          result.set(executeOnLines(editor, context, markers, afterBreak, handler, command));
+        }
+        catch (ExException e) {
+          error.set(e);
+        }
+      }, "Global", null);
+    }
+    finally {
+      running = false;
+      for (RangeMarker marker : markers) {
+        marker.dispose();
+      }
+    }
+
+    if (!error.isNull()) {
+      throw error.get();
+    }
+    return result.get();
+  }
+
+  /**
+   * Creates a marker covering each line including its line break, so a marker is invalidated when its line is deleted.
+   * An empty last line has no line break, its marker covers the line break before it instead and is flagged in
+   * afterBreak.
+   */
+  @NotNull
+  private static RangeMarker[] markLines(@NotNull Document document, @NotNull int[] lines,
+                                         @NotNull boolean[] afterBreak) {
+    final RangeMarker[] markers = new RangeMarker[lines.length];
+    final int lineCount = document.getLineCount();
+    for (int i = 0; i < lines.length; i++) {
+      final int line = lines[i];
+      final int start = document.getLineStartOffset(line);
+      final int end = line + 1 < lineCount ? document.getLineStartOffset(line + 1) : document.getLineEndOffset(line);
+      afterBreak[i] = start == end && start > 0;
+      markers[i] = document.createRangeMarker(afterBreak[i] ? start - 1 : start, end);
+    }
+    return markers;
+  }
+
+  /**
+   * Gets the start of the marked line or -1 if the line is gone.
+   * <p>
+   * A join only replaces the line break and the indent before the joined line, so the marker of that line stays valid
+   * but no longer starts a line. Vim removes the mark of such a line, see ml_clearmarked().
+   */
+  private static int getMarkedLineStart(@NotNull Document document, @NotNull RangeMarker marker, boolean afterBreak,
+                                        @Nullable RangeMarker processed) {
+    if (!marker.isValid()) {
+      return -1;
+    }
+    final int start = afterBreak ? marker.getEndOffset() : marker.getStartOffset();
+    final int line = document.getLineNumber(start);
+    if (start != document.getLineStartOffset(line)) {
+      return -1;
+    }
+    if (processed != null && processed.isValid() && line == document.getLineNumber(processed.getStartOffset())) {
+      return -1;
+    }
+    return start;
+  }
+
+  private static boolean executeOnLines(@NotNull Editor editor, @NotNull DataContext context,
+                                        @NotNull RangeMarker[] markers, @NotNull boolean[] afterBreak,
+                                        @Nullable CommandHandler handler, @NotNull String command)
+    throws ExException {
+    final Document document = editor.getDocument();
+    final CommandParser parser = CommandParser.getInstance();
+    editor.getCaretModel().removeSecondaryCarets();
+    final Caret caret = editor.getCaretModel().getPrimaryCaret();
+
+    // Search highlights are updated once for the whole document when all the lines are done
+    final boolean bulkEditing = EditorData.isBulkEditing(document);
+    EditorData.setBulkEditing(document, true);
+    try {
+      RangeMarker processed = null;
+      for (int i = 0; i < markers.length; i++) {
+        final int start = getMarkedLineStart(document, markers[i], afterBreak[i], processed);
+        if (start < 0) {
+          continue;
+        }
+        processed = markers[i];
+        MotionGroup.moveCaret(editor, caret, start);
+        // Stop at the first line the command fails for, like Vim does
+        if (handler != null && !handler.process(editor, context, parser.parse(command), 1)) {
+          return false;
+        }
+      }
+    }
+    finally {
+      EditorData.setBulkEditing(document, bulkEditing);
+      VimPlugin.getSearch().updateHighlights(document, 0, document.getTextLength());
+    }
+    return true;
+  }
+}
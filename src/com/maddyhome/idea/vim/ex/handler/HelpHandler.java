@@ -22,6 +22,7 @@ import com.intellij.ide.BrowserUtil;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import org.jetbrains.annotations.NotNull;
@@ -38,8 +39,12 @@ public class HelpHandler extends CommandHandler {
   private static final String HELP_ROOT_URL = HELP_BASE_URL + "/htmldoc/";
   private static final String HELP_QUERY_URL = HELP_BASE_URL + "/search.php";
 
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("h", "elp")
+  };
+
   public HelpHandler() {
-    super("h", "elp", ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
@@ -23,9 +23,11 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.ex.ExOutputModel;
+import com.maddyhome.idea.vim.ex.ExOutputRows;
 import com.maddyhome.idea.vim.group.HistoryGroup;
 import org.jetbrains.annotations.NotNull;
 
@@ -35,8 +37,12 @@ import java.util.List;
  *
  */
 public class HistoryHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("his", "tory")
+  };
+
   public HistoryHandler() {
-    super("his", "tory", RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull final DataContext context, @NotNull ExCommand cmd) throws ExException {
@@ -126,51 +132,52 @@ public class HistoryHandler extends CommandHandler {
       return false;
     }
 
-    StringBuilder res = new StringBuilder();
+    final ExOutputModel model = ExOutputModel.getInstance(editor);
+    final ExOutputRows res = new ExOutputRows();
+    final int width = model.getWidth();
     switch (key.charAt(0)) {
       case 'c':
-        res.append(processKey(HistoryGroup.COMMAND, f, l));
+        processKey(res, HistoryGroup.COMMAND, f, l, width);
         break;
       case 's':
-        res.append(processKey(HistoryGroup.SEARCH, f, l));
+        processKey(res, HistoryGroup.SEARCH, f, l, width);
         break;
       case 'e':
-        res.append(processKey(HistoryGroup.EXPRESSION, f, l));
+        processKey(res, HistoryGroup.EXPRESSION, f, l, width);
         break;
       case 'i':
-        res.append(processKey(HistoryGroup.INPUT, f, l));
+        processKey(res, HistoryGroup.INPUT, f, l, width);
         break;
       case 'a':
-        res.append(processKey(HistoryGroup.COMMAND, f, l));
-        res.append(processKey(HistoryGroup.SEARCH, f, l));
-        res.append(processKey(HistoryGroup.EXPRESSION, f, l));
-        res.append(processKey(HistoryGroup.INPUT, f, l));
+        processKey(res, HistoryGroup.COMMAND, f, l, width);
+        processKey(res, HistoryGroup.SEARCH, f, l, width);
+        processKey(res, HistoryGroup.EXPRESSION, f, l, width);
+        processKey(res, HistoryGroup.INPUT, f, l, width);
         break;
     }
 
-    ExOutputModel.getInstance(editor).output(res.toString());
+    model.output(res);
 
     return true;
   }
 
-  @NotNull
-  private String processKey(String key, int start, int end) {
+  private void processKey(@NotNull ExOutputRows res, String key, int start, int end, int width) {
     if (logger.isDebugEnabled()) {
       logger.debug("process " + key + " " + start + "," + end);
     }
 
-    StringBuilder res = new StringBuilder();
-
-    res.append("      #  ").append(key).append(" ").append("history\n");
-
-    String spaces = "       ";
-    List<HistoryGroup.HistoryEntry> entries = VimPlugin.getHistory().getEntries(key, start, end);
-    for (HistoryGroup.HistoryEntry entry : entries) {
-      String num = Integer.toString(entry.getNumber());
-      res.append(spaces.substring(num.length())).append(num).append("  ").append(entry.getEntry()).append("\n");
-    }
-
-    return res.toString();
+    res.add("      #  " + key + " history");
+
+    final String spaces = "       ";
+    final List<HistoryGroup.HistoryEntry> entries = VimPlugin.getHistory().getEntries(key, start, end);
+    res.add(entries.size(), index -> {
+      final HistoryGroup.HistoryEntry entry = entries.get(index);
+      final String num = Integer.toString(entry.getNumber());
+      final String text = entry.getEntry();
+      // Like Vim, cut long entries to the width of the window
+      final int length = Math.max(width - 10, 0);
+      return spaces.substring(num.length()) + num + "  " + (text.length() > length ? text.substring(0, length) : text);
+    });
   }
 
   private static final Logger logger = Logger.getInstance(HistoryHandler.class.getName());
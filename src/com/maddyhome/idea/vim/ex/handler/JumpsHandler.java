@@ -25,7 +25,6 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.common.Jump;
 import com.maddyhome.idea.vim.ex.*;
 import com.maddyhome.idea.vim.helper.EditorData;
-import com.maddyhome.idea.vim.helper.EditorHelper;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -36,21 +35,27 @@ import static com.maddyhome.idea.vim.helper.StringHelper.*;
  *
  */
 public class JumpsHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("ju", "mps")
+  };
+
   public JumpsHandler() {
-    super(new CommandName[]{
-      new CommandName("ju", "mps")
-    }, ARGUMENT_FORBIDDEN);
+    super(COMMAND_NAMES, ARGUMENT_FORBIDDEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
-    List<Jump> jumps = VimPlugin.getMark().getJumps();
-    int spot = VimPlugin.getMark().getJumpSpot();
+    final List<Jump> jumps = VimPlugin.getMark().getJumps();
+    final int spot = VimPlugin.getMark().getJumpSpot();
+    final ExOutputModel model = ExOutputModel.getInstance(editor);
+    final int width = model.getWidth();
+    final VirtualFile vf = EditorData.getVirtualFile(editor);
 
-    String spaces = "     ";
-    StringBuilder text = new StringBuilder();
-    text.append("  jump line  col file/text\n");
-    int i = jumps.size();
-    for (Jump jump : jumps) {
+    final ExOutputRows rows = new ExOutputRows().add("  jump line  col file/text");
+    rows.add(jumps.size(), index -> {
+      final Jump jump = jumps.get(index);
+      final int i = jumps.size() - index;
+      String spaces = "     ";
+      StringBuilder text = new StringBuilder();
       if (i - spot - 1 == 0) {
         text.append("> ");
       }
@@ -70,23 +75,20 @@ public class JumpsHandler extends CommandHandler {
       text.append(num);
 
       text.append(" ");
-      VirtualFile vf = EditorData.getVirtualFile(editor);
       if (vf != null && vf.getPath().equals(jump.getFilename())) {
-        text.append(toKeyNotation(stringToKeys(EditorHelper.getLineText(editor, jump.getLogicalLine()).trim())));
+        text.append(MarksHandler.getLineKeyNotation(editor, jump.getLogicalLine(), width - text.length() - 1));
       }
       else {
         text.append(jump.getFilename());
       }
-
-      text.append("\n");
-      i--;
-    }
+      return text.toString();
+    });
 
     if (spot == -1) {
-      text.append(">\n");
+      rows.add(">");
     }
 
-    ExOutputModel.getInstance(editor).output(text.toString());
+    model.output(rows);
 
     return true;
   }
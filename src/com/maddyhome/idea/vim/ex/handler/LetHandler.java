@@ -21,9 +21,11 @@ package com.maddyhome.idea.vim.ex.handler;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Editor;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.ex.vimscript.VimScriptCommandHandler;
+import com.maddyhome.idea.vim.ex.vimscript.VimScriptExpression;
 import com.maddyhome.idea.vim.ex.vimscript.VimScriptGlobalEnvironment;
 import com.maddyhome.idea.vim.ex.vimscript.VimScriptParser;
 import org.jetbrains.annotations.NotNull;
@@ -36,10 +38,14 @@ import java.util.regex.Pattern;
  * @author vlan
  */
 public class LetHandler extends CommandHandler implements VimScriptCommandHandler {
-  private static Pattern SIMPLE_ASSIGNMENT = Pattern.compile("([A-Za-z_][A-Za-z_0-9]*)[ \\t]*=[ \\t]*(.*)");
+  private static Pattern SIMPLE_ASSIGNMENT = Pattern.compile("((?:[gs]:)?[A-Za-z_][A-Za-z_0-9]*)[ \\t]*=[ \\t]*(.*)");
+
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("let", "")
+  };
 
   public LetHandler() {
-    super("let", "", RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL);
   }
 
   @Override
@@ -58,8 +64,7 @@ public class LetHandler extends CommandHandler implements VimScriptCommandHandle
     else {
       final Matcher matcher = SIMPLE_ASSIGNMENT.matcher(argument);
       if (matcher.matches()) {
-        final String name = matcher.group(1);
-        // TODO: Check that 'name' is global
+        final String name = VimScriptExpression.getVariableKey(matcher.group(1));
         final String expression = matcher.group(2);
         final VimScriptGlobalEnvironment env = VimScriptGlobalEnvironment.getInstance();
         final Map<String, Object> globals = env.getVariables();
@@ -34,11 +34,13 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class MarkHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("ma", "rk"),
+    new CommandName("k", "")
+  };
+
   public MarkHandler() {
-    super(new CommandName[]{
-      new CommandName("ma", "rk"),
-      new CommandName("k", "")
-    }, RANGE_OPTIONAL | ARGUMENT_REQUIRED);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_REQUIRED);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
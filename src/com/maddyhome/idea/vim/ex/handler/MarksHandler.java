@@ -37,19 +37,25 @@ import static com.maddyhome.idea.vim.helper.StringHelper.toKeyNotation;
  *
  */
 public class MarksHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("marks", "")
+  };
+
   public MarksHandler() {
-    super(new CommandName[]{
-      new CommandName("marks", "")
-    }, ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
-    List<Mark> marks = VimPlugin.getMark().getMarks(editor);
+    final List<Mark> marks = VimPlugin.getMark().getMarks(editor);
+    final ExOutputModel model = ExOutputModel.getInstance(editor);
+    final int width = model.getWidth();
+    final VirtualFile vf = EditorData.getVirtualFile(editor);
 
-    String spaces = "     ";
-    StringBuilder text = new StringBuilder();
-    text.append("mark  line  col file/text\n");
-    for (Mark mark : marks) {
+    final ExOutputRows rows = new ExOutputRows().add("mark  line  col file/text");
+    rows.add(marks.size(), index -> {
+      final Mark mark = marks.get(index);
+      String spaces = "     ";
+      StringBuilder text = new StringBuilder();
       text.append(" ");
       text.append(mark.getKey());
 
@@ -64,19 +70,25 @@ public class MarksHandler extends CommandHandler {
       text.append(num);
 
       text.append(" ");
-      VirtualFile vf = EditorData.getVirtualFile(editor);
       if (vf != null && vf.getPath().equals(mark.getFilename())) {
-        text.append(toKeyNotation(stringToKeys(EditorHelper.getLineText(editor, mark.getLogicalLine()).trim())));
+        text.append(getLineKeyNotation(editor, mark.getLogicalLine(), width - text.length() - 1));
       }
       else {
         text.append(mark.getFilename());
       }
-
-      text.append("\n");
-    }
-
-    ExOutputModel.getInstance(editor).output(text.toString());
+      return text.toString();
+    });
+    model.output(rows);
 
     return true;
   }
+
+  /**
+   * Gets the text of the line in key notation, without the leading and trailing whitespace and cut to maxLength
+   */
+  @NotNull
+  static String getLineKeyNotation(@NotNull Editor editor, int line, int maxLength) {
+    final String text = EditorHelper.getLineText(editor, line).trim();
+    return toKeyNotation(stringToKeys(text.substring(0, Math.min(text.length(), Math.max(maxLength, 0)))), maxLength);
+  }
 }
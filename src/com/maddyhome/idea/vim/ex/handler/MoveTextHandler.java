@@ -40,8 +40,12 @@ import java.util.List;
  *
  */
 public class MoveTextHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("m", "ove")
+  };
+
   public MoveTextHandler() {
-    super("m", "ove", RANGE_OPTIONAL | ARGUMENT_REQUIRED | WRITABLE);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_REQUIRED | WRITABLE);
   }
 
   @Override
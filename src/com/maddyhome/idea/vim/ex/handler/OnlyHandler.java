@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class OnlyHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("on", "ly")
+  };
+
   public OnlyHandler() {
-    super(new CommandName[]{
-      new CommandName("on", "ly")
-    }, ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -30,11 +30,13 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class PreviousFileHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("N", "ext"),
+    new CommandName("prev", "ious")
+  };
+
   public PreviousFileHandler() {
-    super(new CommandName[]{
-      new CommandName("N", "ext"),
-      new CommandName("prev", "ious")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | RANGE_IS_COUNT | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | RANGE_IS_COUNT | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
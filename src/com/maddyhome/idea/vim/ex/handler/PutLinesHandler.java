@@ -39,10 +39,12 @@ import org.jetbrains.annotations.NotNull;
 import java.util.List;
 
 public class PutLinesHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("pu", "t")
+  };
+
   public PutLinesHandler() {
-    super(new CommandName[]{
-      new CommandName("pu", "t")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context,
@@ -30,12 +30,14 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class QuitHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("q", "uit"),
+    new CommandName("clo", "se"),
+    new CommandName("hid", "e")
+  };
+
   public QuitHandler() {
-    super(new CommandName[]{
-      new CommandName("q", "uit"),
-      new CommandName("clo", "se"),
-      new CommandName("hid", "e")
-    }, ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
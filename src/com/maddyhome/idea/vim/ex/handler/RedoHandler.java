@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class RedoHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("red", "o")
+  };
+
   public RedoHandler() {
-    super(new CommandName[]{
-      new CommandName("red", "o")
-    }, RANGE_FORBIDDEN | ARGUMENT_FORBIDDEN | WRITABLE);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_FORBIDDEN | WRITABLE);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
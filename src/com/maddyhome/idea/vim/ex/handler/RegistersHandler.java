@@ -32,28 +32,27 @@ import java.util.List;
  *
  */
 public class RegistersHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("di", "splay"),
+    new CommandName("reg", "isters")
+  };
+
   public RegistersHandler() {
-    super(new CommandName[]{
-      new CommandName("di", "splay"),
-      new CommandName("reg", "isters")
-    }, ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull final Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) throws ExException {
-    List<Register> registers = VimPlugin.getRegister().getRegisters();
-
-    StringBuilder text = new StringBuilder();
-    text.append("--- Registers ---\n");
-    for (Register reg : registers) {
-      text.append("\"");
-      text.append(reg.getName());
-
-      text.append("   ");
-      text.append(StringHelper.toKeyNotation(reg.getKeys()));
-      text.append("\n");
-    }
-
-    ExOutputModel.getInstance(editor).output(text.toString());
+    final List<Register> registers = VimPlugin.getRegister().getRegisters();
+    final ExOutputModel model = ExOutputModel.getInstance(editor);
+    final int width = model.getWidth();
+
+    final ExOutputRows rows = new ExOutputRows().add("--- Registers ---");
+    rows.add(registers.size(), index -> {
+      final Register reg = registers.get(index);
+      final String prefix = "\"" + reg.getName() + "   ";
+      return prefix + StringHelper.toKeyNotation(reg.getKeys(), width - prefix.length() - 1);
+    });
+    model.output(rows);
 
     return true;
   }
@@ -32,9 +32,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class RepeatHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("@", "")
+  };
+
   public RepeatHandler() {
-    super(new CommandName[]{new CommandName("@", "")}, RANGE_OPTIONAL | ARGUMENT_REQUIRED | DONT_SAVE_LAST, true,
-          CaretOrder.DECREASING_OFFSET);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_REQUIRED | DONT_SAVE_LAST, true, CaretOrder.DECREASING_OFFSET);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull Caret caret, @NotNull DataContext context,
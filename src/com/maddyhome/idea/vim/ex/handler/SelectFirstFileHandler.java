@@ -30,11 +30,13 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class SelectFirstFileHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("fir", "st"),
+    new CommandName("rew", "ind")
+  };
+
   public SelectFirstFileHandler() {
-    super(new CommandName[]{
-      new CommandName("fir", "st"),
-      new CommandName("rew", "ind")
-    }, ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
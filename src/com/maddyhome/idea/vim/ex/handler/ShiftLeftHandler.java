@@ -25,6 +25,7 @@ import com.intellij.util.ArrayUtil;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.handler.CaretOrder;
 import org.jetbrains.annotations.NotNull;
@@ -36,8 +37,12 @@ import java.util.List;
  *
  */
 public class ShiftLeftHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("<", "<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<")
+  };
+
   public ShiftLeftHandler() {
-    super("<", "<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<", ARGUMENT_OPTIONAL | WRITABLE, true, CaretOrder.DECREASING_OFFSET);
+    super(COMMAND_NAMES, ARGUMENT_OPTIONAL | WRITABLE, true, CaretOrder.DECREASING_OFFSET);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull Caret caret, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -31,8 +31,12 @@ import java.io.File;
  * @author vlan
  */
 public class SourceHandler extends CommandHandler implements VimScriptCommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("so", "urce")
+  };
+
   public SourceHandler() {
-    super("so", "urce", RANGE_FORBIDDEN | ARGUMENT_REQUIRED);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_REQUIRED);
   }
 
   @Override
@@ -30,11 +30,13 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class SplitHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("vs", "plit"),
+    new CommandName("sp", "lit")
+  };
+
   public SplitHandler() {
-    super(new CommandName[]{
-      new CommandName("vs", "plit"),
-      new CommandName("sp", "lit")
-    }, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -29,12 +29,14 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class SubstituteHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("s", "ubstitute"),
+    new CommandName("&", ""),
+    new CommandName("~", "")
+  };
+
   public SubstituteHandler() {
-    super(new CommandName[]{
-      new CommandName("s", "ubstitute"),
-      new CommandName("&", ""),
-      new CommandName("~", "")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | WRITABLE);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context,
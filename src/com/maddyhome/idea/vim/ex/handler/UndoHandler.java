@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class UndoHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("u", "ndo")
+  };
+
   public UndoHandler() {
-    super(new CommandName[]{
-      new CommandName("u", "ndo")
-    }, RANGE_FORBIDDEN | ARGUMENT_FORBIDDEN | WRITABLE);
+    super(COMMAND_NAMES, RANGE_FORBIDDEN | ARGUMENT_FORBIDDEN | WRITABLE);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class WriteAllHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("wa", "ll")
+  };
+
   public WriteAllHandler() {
-    super(new CommandName[]{
-      new CommandName("wa", "ll")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class WriteHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("w", "rite")
+  };
+
   public WriteHandler() {
-    super(new CommandName[]{
-      new CommandName("w", "rite")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
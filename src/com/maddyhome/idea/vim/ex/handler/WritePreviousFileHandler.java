@@ -30,11 +30,13 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class WritePreviousFileHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("wN", "ext"),
+    new CommandName("wp", "revious")
+  };
+
   public WritePreviousFileHandler() {
-    super(new CommandName[]{
-      new CommandName("wN", "ext"),
-      new CommandName("wp", "revious")
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | RANGE_IS_COUNT);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | RANGE_IS_COUNT);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
@@ -30,12 +30,14 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 public class WriteQuitHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("wq", ""),
+    new CommandName("exi", "t"),
+    new CommandName("x", "it")
+  };
+
   public WriteQuitHandler() {
-    super(new CommandName[]{
-      new CommandName("wq", ""),
-      new CommandName("exi", "t"),
-      new CommandName("x", "it"),
-    }, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | DONT_REOPEN);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL | DONT_REOPEN);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull ExCommand cmd) {
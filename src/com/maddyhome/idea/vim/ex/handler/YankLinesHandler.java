@@ -27,6 +27,7 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.SelectionType;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
 import com.maddyhome.idea.vim.ex.ExCommand;
 import com.maddyhome.idea.vim.ex.ExException;
 import com.maddyhome.idea.vim.group.RegisterGroup;
@@ -40,8 +41,12 @@ import static com.google.common.collect.Lists.newArrayListWithCapacity;
  *
  */
 public class YankLinesHandler extends CommandHandler {
+  public static final CommandName[] COMMAND_NAMES = new CommandName[]{
+    new CommandName("y", "ank")
+  };
+
   public YankLinesHandler() {
-    super("y", "ank", RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
+    super(COMMAND_NAMES, RANGE_OPTIONAL | ARGUMENT_OPTIONAL);
   }
 
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context,
@@ -65,10 +65,10 @@ public class LineNumberRange extends AbstractRange {
    */
   protected int getRangeLine(@NotNull Editor editor, DataContext context, boolean lastZero) {
     if (line == CURRENT_LINE) {
-      line = editor.getCaretModel().getLogicalPosition().line;
+      return editor.getCaretModel().getLogicalPosition().line;
     }
     else if (line == LAST_LINE) {
-      line = EditorHelper.getLineCount(editor) - 1;
+      return EditorHelper.getLineCount(editor) - 1;
     }
 
     return line;
@@ -76,10 +76,8 @@ public class LineNumberRange extends AbstractRange {
 
   protected int getRangeLine(@NotNull Editor editor, @NotNull Caret caret, @NotNull DataContext context,
                              boolean lastZero) {
-    if (line == LAST_LINE) line = EditorHelper.getLineCount(editor) - 1;
-    else line = caret.getLogicalPosition().line;
-
-    return line;
+    if (line == LAST_LINE) return EditorHelper.getLineCount(editor) - 1;
+    else return caret.getLogicalPosition().line;
   }
 
   @NotNull
@@ -88,5 +86,5 @@ public class LineNumberRange extends AbstractRange {
     return "LineNumberRange[" + "line=" + line + ", " + super.toString() + "]";
   }
 
-  private int line;
+  private final int line;
 }
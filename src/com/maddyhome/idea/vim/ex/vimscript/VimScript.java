@@ -0,0 +1,121 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2016 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.ex.vimscript;
+
+import com.maddyhome.idea.vim.ex.ExCommand;
+import com.maddyhome.idea.vim.ex.ExException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Vim script parsed into the commands it runs, so it can be executed again without parsing its text.
+ *
+ * @see VimScriptParser#compile(String)
+ */
+public class VimScript {
+  @NotNull private final List<Statement> statements = new ArrayList<>();
+
+  void add(@NotNull ExCommand command, @NotNull VimScriptCommandHandler handler) {
+    statements.add(new CommandStatement(command, handler));
+  }
+
+  @NotNull
+  Conditional addConditional() {
+    final Conditional res = new Conditional();
+    statements.add(res);
+    return res;
+  }
+
+  public int size() {
+    return statements.size();
+  }
+
+  /**
+   * Runs the commands of the script. A command that fails doesn't stop the ones after it.
+   */
+  public void execute() {
+    for (Statement statement : statements) {
+      statement.execute();
+    }
+  }
+
+  private interface Statement {
+    void execute();
+  }
+
+  private static class CommandStatement implements Statement {
+    @NotNull private final ExCommand command;
+    @NotNull private final VimScriptCommandHandler handler;
+
+    CommandStatement(@NotNull ExCommand command, @NotNull VimScriptCommandHandler handler) {
+      this.command = command;
+      this.handler = handler;
+    }
+
+    @Override
+    public void execute() {
+      try {
+        handler.execute(command);
+      }
+      catch (ExException ignored) {
+      }
+    }
+  }
+
+  /**
+   * An if/elseif/else/endif block
+   */
+  static class Conditional implements Statement {
+    @NotNull private final List<VimScriptExpression> conditions = new ArrayList<>();
+    @NotNull private final List<VimScript> branches = new ArrayList<>();
+
+    /**
+     * Adds the branch of an if or elseif command, or the else branch if the condition is null
+     *
+     * @return The script to add the commands of the branch to
+     */
+    @NotNull
+    VimScript addBranch(@Nullable VimScriptExpression condition) {
+      final VimScript res = new VimScript();
+      conditions.add(condition);
+      branches.add(res);
+      return res;
+    }
+
+    @Override
+    public void execute() {
+      final VimScriptGlobalEnvironment env = VimScriptGlobalEnvironment.getInstance();
+      try {
+        for (int i = 0; i < branches.size(); i++) {
+          final VimScriptExpression condition = conditions.get(i);
+          if (condition == null || VimScriptExpression.isTrue(condition.evaluate(env.getVariables()))) {
+            branches.get(i).execute();
+            return;
+          }
+        }
+      }
+      catch (ExException ignored) {
+        // An invalid condition skips the whole block
+      }
+    }
+  }
+}
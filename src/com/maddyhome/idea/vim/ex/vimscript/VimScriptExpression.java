@@ -0,0 +1,539 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2016 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.ex.vimscript;
+
+import com.maddyhome.idea.vim.ex.ExException;
+import com.maddyhome.idea.vim.option.Options;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A parsed Vim script expression, see :help expression-syntax.
+ * <p>
+ * Supported values are Numbers (as {@link Integer}) and Strings. The expression may use number and string literals,
+ * variables with an optional g: or s: scope, parentheses, the unary operators ! - +, the binary operators * / % + -
+ * and the string concatenation . and .., comparisons with an optional # or ? suffix, && || and the ?: conditional.
+ * <p>
+ * Expressions are immutable, so the compiled form of an expression text is cached and shared.
+ */
+public abstract class VimScriptExpression {
+  private static final int CACHE_SIZE = 256;
+
+  private static final Map<String, VimScriptExpression> ourCache =
+    new LinkedHashMap<String, VimScriptExpression>(CACHE_SIZE, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VimScriptExpression> eldest) {
+        return size() > CACHE_SIZE;
+      }
+    };
+
+  /**
+   * Parses an expression or gets it from the cache of recently used expressions
+   *
+   * @param text The text of the expression
+   * @return The parsed expression
+   * @throws ExException if the text isn't a valid expression
+   */
+  @NotNull
+  public static VimScriptExpression compile(@NotNull String text) throws ExException {
+    synchronized (ourCache) {
+      final VimScriptExpression cached = ourCache.get(text);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    final VimScriptExpression res = new ExpressionParser(text).parse();
+    synchronized (ourCache) {
+      ourCache.put(text, res);
+    }
+    return res;
+  }
+
+  /**
+   * Evaluates the expression
+   *
+   * @param globals The variables of the script environment, see {@link #getVariableKey(String)}
+   * @return An {@link Integer} or a {@link String}
+   * @throws ExException if the expression refers to an undefined variable
+   */
+  @NotNull
+  public abstract Object evaluate(@NotNull Map<String, Object> globals) throws ExException;
+
+  /**
+   * Gets the key of a variable in the map of the script environment. Global variables are stored without their g:
+   * scope, script variables keep their s: scope.
+   */
+  @NotNull
+  public static String getVariableKey(@NotNull String name) {
+    return name.startsWith("g:") ? name.substring(2) : name;
+  }
+
+  /**
+   * Converts a value to a Number. Strings are converted by their leading digits, like Vim does.
+   */
+  public static int toNumber(@NotNull Object value) {
+    if (value instanceof Integer) {
+      return (Integer)value;
+    }
+    final String text = value.toString();
+    int i = 0;
+    boolean negative = false;
+    if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+      negative = text.charAt(i) == '-';
+      i++;
+    }
+    int res = 0;
+    for (; i < text.length() && Character.isDigit(text.charAt(i)); i++) {
+      res = res * 10 + text.charAt(i) - '0';
+    }
+    return negative ? -res : res;
+  }
+
+  /**
+   * Converts a value to a String
+   */
+  @NotNull
+  public static String toString(@NotNull Object value) {
+    return value.toString();
+  }
+
+  public static boolean isTrue(@NotNull Object value) {
+    return toNumber(value) != 0;
+  }
+
+  private static class Literal extends VimScriptExpression {
+    @NotNull private final Object value;
+
+    Literal(@NotNull Object value) {
+      this.value = value;
+    }
+
+    @NotNull
+    @Override
+    public Object evaluate(@NotNull Map<String, Object> globals) {
+      return value;
+    }
+  }
+
+  private static class Variable extends VimScriptExpression {
+    @NotNull private final String name;
+    @NotNull private final String key;
+
+    Variable(@NotNull String name) {
+      this.name = name;
+      this.key = getVariableKey(name);
+    }
+
+    @NotNull
+    @Override
+    public Object evaluate(@NotNull Map<String, Object> globals) throws ExException {
+      final Object value = globals.get(key);
+      if (value == null) {
+        throw new ExException(String.format("Undefined variable: %s", name));
+      }
+      return value;
+    }
+  }
+
+  private static class Unary extends VimScriptExpression {
+    private final char operator;
+    @NotNull private final VimScriptExpression operand;
+
+    Unary(char operator, @NotNull VimScriptExpression operand) {
+      this.operator = operator;
+      this.operand = operand;
+    }
+
+    @NotNull
+    @Override
+    public Object evaluate(@NotNull Map<String, Object> globals) throws ExException {
+      final int value = toNumber(operand.evaluate(globals));
+      switch (operator) {
+        case '!':
+          return value == 0 ? 1 : 0;
+        case '-':
+          return -value;
+        default:
+          return value;
+      }
+    }
+  }
+
+  private static class Binary extends VimScriptExpression {
+    @NotNull private final String operator;
+    @NotNull private final VimScriptExpression left;
+    @NotNull private final VimScriptExpression right;
+
+    Binary(@NotNull String operator, @NotNull VimScriptExpression left, @NotNull VimScriptExpression right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @NotNull
+    @Override
+    public Object evaluate(@NotNull Map<String, Object> globals) throws ExException {
+      // The logical operators only evaluate their right operand when needed
+      if (operator.equals("||")) {
+        return isTrue(left.evaluate(globals)) || isTrue(right.evaluate(globals)) ? 1 : 0;
+      }
+      if (operator.equals("&&")) {
+        return isTrue(left.evaluate(globals)) && isTrue(right.evaluate(globals)) ? 1 : 0;
+      }
+
+      final Object l = left.evaluate(globals);
+      final Object r = right.evaluate(globals);
+      switch (operator) {
+        case ".":
+        case "..":
+          return VimScriptExpression.toString(l) + VimScriptExpression.toString(r);
+        case "+":
+          return toNumber(l) + toNumber(r);
+        case "-":
+          return toNumber(l) - toNumber(r);
+        case "*":
+          return toNumber(l) * toNumber(r);
+        case "/":
+          return divide(toNumber(l), toNumber(r));
+        case "%":
+          return toNumber(r) == 0 ? 0 : toNumber(l) % toNumber(r);
+        default:
+          return compare(l, r) ? 1 : 0;
+      }
+    }
+
+    private static int divide(int l, int r) {
+      // See :help expr-/
+      if (r == 0) {
+        return l > 0 ? Integer.MAX_VALUE : l < 0 ? -Integer.MAX_VALUE : Integer.MIN_VALUE;
+      }
+      return l / r;
+    }
+
+    private boolean compare(@NotNull Object l, @NotNull Object r) {
+      final String op;
+      final boolean ignoreCase;
+      final char last = operator.charAt(operator.length() - 1);
+      if (last == '#' || last == '?') {
+        op = operator.substring(0, operator.length() - 1);
+        ignoreCase = last == '?';
+      }
+      else {
+        op = operator;
+        ignoreCase = Options.getInstance().isSet("ignorecase");
+      }
+
+      // A String is compared as a Number if the other side is a Number
+      final int res;
+      if (l instanceof Integer || r instanceof Integer) {
+        res = Integer.compare(toNumber(l), toNumber(r));
+      }
+      else if (ignoreCase) {
+        res = ((String)l).compareToIgnoreCase((String)r);
+      }
+      else {
+        res = ((String)l).compareTo((String)r);
+      }
+
+      switch (op) {
+        case "==":
+          return res == 0;
+        case "!=":
+          return res != 0;
+        case ">":
+          return res > 0;
+        case ">=":
+          return res >= 0;
+        case "<":
+          return res < 0;
+        default:
+          return res <= 0;
+      }
+    }
+  }
+
+  private static class Conditional extends VimScriptExpression {
+    @NotNull private final VimScriptExpression condition;
+    @NotNull private final VimScriptExpression then;
+    @NotNull private final VimScriptExpression otherwise;
+
+    Conditional(@NotNull VimScriptExpression condition, @NotNull VimScriptExpression then,
+                @NotNull VimScriptExpression otherwise) {
+      this.condition = condition;
+      this.then = then;
+      this.otherwise = otherwise;
+    }
+
+    @NotNull
+    @Override
+    public Object evaluate(@NotNull Map<String, Object> globals) throws ExException {
+      return isTrue(condition.evaluate(globals)) ? then.evaluate(globals) : otherwise.evaluate(globals);
+    }
+  }
+
+  /**
+   * A recursive descent parser for the precedence levels described in :help expression-syntax
+   */
+  private static class ExpressionParser {
+    private static final String[] COMPARISON_OPERATORS = {"==", "!=", ">=", "<=", ">", "<"};
+
+    @NotNull private final String text;
+    private int pos = 0;
+
+    ExpressionParser(@NotNull String text) {
+      this.text = text;
+    }
+
+    @NotNull
+    VimScriptExpression parse() throws ExException {
+      final VimScriptExpression res = parseConditional();
+      skipWhitespace();
+      if (pos < text.length()) {
+        throw invalid();
+      }
+      return res;
+    }
+
+    @NotNull
+    private VimScriptExpression parseConditional() throws ExException {
+      final VimScriptExpression condition = parseOr();
+      if (!consume("?")) {
+        return condition;
+      }
+      final VimScriptExpression then = parseConditional();
+      if (!consume(":")) {
+        throw invalid();
+      }
+      return new Conditional(condition, then, parseConditional());
+    }
+
+    @NotNull
+    private VimScriptExpression parseOr() throws ExException {
+      VimScriptExpression res = parseAnd();
+      while (consume("||")) {
+        res = new Binary("||", res, parseAnd());
+      }
+      return res;
+    }
+
+    @NotNull
+    private VimScriptExpression parseAnd() throws ExException {
+      VimScriptExpression res = parseComparison();
+      while (consume("&&")) {
+        res = new Binary("&&", res, parseComparison());
+      }
+      return res;
+    }
+
+    @NotNull
+    private VimScriptExpression parseComparison() throws ExException {
+      final VimScriptExpression left = parseSum();
+      for (String operator : COMPARISON_OPERATORS) {
+        if (consume(operator)) {
+          String op = operator;
+          if (pos < text.length() && (text.charAt(pos) == '#' || text.charAt(pos) == '?')) {
+            op += text.charAt(pos++);
+          }
+          return new Binary(op, left, parseSum());
+        }
+      }
+      return left;
+    }
+
+    @NotNull
+    private VimScriptExpression parseSum() throws ExException {
+      VimScriptExpression res = parseProduct();
+      while (true) {
+        final String operator = consumeAny("..", ".", "+", "-");
+        if (operator == null) {
+          return res;
+        }
+        res = new Binary(operator, res, parseProduct());
+      }
+    }
+
+    @NotNull
+    private VimScriptExpression parseProduct() throws ExException {
+      VimScriptExpression res = parseUnary();
+      while (true) {
+        final String operator = consumeAny("*", "/", "%");
+        if (operator == null) {
+          return res;
+        }
+        res = new Binary(operator, res, parseUnary());
+      }
+    }
+
+    @NotNull
+    private VimScriptExpression parseUnary() throws ExException {
+      final String operator = consumeAny("!", "-", "+");
+      if (operator != null) {
+        return new Unary(operator.charAt(0), parseUnary());
+      }
+      return parsePrimary();
+    }
+
+    @NotNull
+    private VimScriptExpression parsePrimary() throws ExException {
+      skipWhitespace();
+      if (pos >= text.length()) {
+        throw invalid();
+      }
+      final char ch = text.charAt(pos);
+      if (ch == '(') {
+        pos++;
+        final VimScriptExpression res = parseConditional();
+        if (!consume(")")) {
+          throw invalid();
+        }
+        return res;
+      }
+      else if (ch == '"') {
+        return new Literal(parseDoubleQuoted());
+      }
+      else if (ch == '\'') {
+        return new Literal(parseSingleQuoted());
+      }
+      else if (Character.isDigit(ch)) {
+        return new Literal(parseNumber());
+      }
+      else if (Character.isLetter(ch) || ch == '_') {
+        final int start = pos;
+        if (pos + 1 < text.length() && text.charAt(pos + 1) == ':' && (ch == 'g' || ch == 's')) {
+          pos += 2;
+        }
+        while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+          pos++;
+        }
+        return new Variable(text.substring(start, pos));
+      }
+      throw invalid();
+    }
+
+    @NotNull
+    private String parseDoubleQuoted() throws ExException {
+      final StringBuilder res = new StringBuilder();
+      for (pos++; pos < text.length(); pos++) {
+        char ch = text.charAt(pos);
+        if (ch == '"') {
+          pos++;
+          return res.toString();
+        }
+        if (ch == '\\' && pos + 1 < text.length()) {
+          ch = text.charAt(++pos);
+          switch (ch) {
+            case 'n':
+              ch = '\n';
+              break;
+            case 't':
+              ch = '\t';
+              break;
+            case 'r':
+              ch = '\r';
+              break;
+            case 'e':
+              ch = '\u001B';
+              break;
+          }
+        }
+        res.append(ch);
+      }
+      throw invalid();
+    }
+
+    @NotNull
+    private String parseSingleQuoted() throws ExException {
+      final StringBuilder res = new StringBuilder();
+      for (pos++; pos < text.length(); pos++) {
+        final char ch = text.charAt(pos);
+        if (ch == '\'') {
+          // Two single quotes stand for one
+          if (pos + 1 < text.length() && text.charAt(pos + 1) == '\'') {
+            pos++;
+          }
+          else {
+            pos++;
+            return res.toString();
+          }
+        }
+        res.append(ch);
+      }
+      throw invalid();
+    }
+
+    private int parseNumber() throws ExException {
+      int radix = 10;
+      int start = pos;
+      if (text.startsWith("0x", pos) || text.startsWith("0X", pos)) {
+        radix = 16;
+        start = pos += 2;
+      }
+      else if (text.charAt(pos) == '0' && pos + 1 < text.length() && Character.isDigit(text.charAt(pos + 1))) {
+        radix = 8;
+      }
+      while (pos < text.length() && Character.digit(text.charAt(pos), radix == 8 ? 10 : radix) >= 0) {
+        pos++;
+      }
+      final String digits = text.substring(start, pos);
+      // Numbers with a leading zero are octal unless they contain an 8 or 9
+      if (radix == 8 && (digits.indexOf('8') >= 0 || digits.indexOf('9') >= 0)) {
+        radix = 10;
+      }
+      try {
+        return (int)Long.parseLong(digits, radix);
+      }
+      catch (NumberFormatException e) {
+        throw invalid();
+      }
+    }
+
+    private boolean consume(@NotNull String token) {
+      skipWhitespace();
+      if (text.startsWith(token, pos)) {
+        pos += token.length();
+        return true;
+      }
+      return false;
+    }
+
+    @Nullable
+    private String consumeAny(@NotNull String... tokens) {
+      for (String token : tokens) {
+        if (consume(token)) {
+          return token;
+        }
+      }
+      return null;
+    }
+
+    private void skipWhitespace() {
+      while (pos < text.length() && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+        pos++;
+      }
+    }
+
+    @NotNull
+    private ExException invalid() {
+      return new ExException(String.format("Invalid expression: %s", text));
+    }
+  }
+}
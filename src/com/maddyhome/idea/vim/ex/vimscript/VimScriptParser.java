@@ -29,8 +29,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -40,9 +42,8 @@ public class VimScriptParser {
   public static final String[] VIMRC_FILES = {".ideavimrc", "_ideavimrc"};
   public static final int BUFSIZE = 4096;
   private static final Pattern EOL_SPLIT_PATTERN = Pattern.compile(" *(\r\n|\n)+ *");
-  private static final Pattern DOUBLE_QUOTED_STRING = Pattern.compile("\"([^\"]*)\"");
-  private static final Pattern SINGLE_QUOTED_STRING = Pattern.compile("'([^']*)'");
-  private static final Pattern REFERENCE_EXPR = Pattern.compile("([A-Za-z_][A-Za-z_0-9]*)");
+
+  private static final Map<String, CachedScript> ourCompiledFiles = new ConcurrentHashMap<>();
 
   private VimScriptParser() {
   }
@@ -69,68 +70,110 @@ public class VimScriptParser {
     catch (IOException ignored) {
       return;
     }
-    executeText(data);
+
+    // Sourcing an unchanged file again reuses its parsed commands
+    final String path = file.getAbsolutePath();
+    final long modified = file.lastModified();
+    final int hash = data.hashCode();
+    CachedScript cached = ourCompiledFiles.get(path);
+    if (cached == null || cached.modified != modified || cached.hash != hash) {
+      cached = new CachedScript(modified, hash, compile(data));
+      ourCompiledFiles.put(path, cached);
+    }
+    cached.script.execute();
   }
 
   public static void executeText(@NotNull String text) {
+    compile(text).execute();
+  }
+
+  /**
+   * Parses the commands of a Vim script. Commands that aren't supported in scripts are left out.
+   */
+  @NotNull
+  public static VimScript compile(@NotNull String text) {
+    final VimScript script = new VimScript();
+    // The innermost if block is on top, together with the script of its current branch
+    final Deque<VimScript.Conditional> conditionals = new ArrayDeque<>();
+    final Deque<VimScript> scripts = new ArrayDeque<>();
+    scripts.push(script);
+    final CommandParser commandParser = CommandParser.getInstance();
     for (String line : EOL_SPLIT_PATTERN.split(text)) {
       // TODO: Build a proper parse tree for a VimL file instead of ignoring potentially nested lines (VIM-669)
-      if (line.startsWith(" ") || line.startsWith("\t")) {
+      if (conditionals.isEmpty() && (line.startsWith(" ") || line.startsWith("\t"))) {
         continue;
       }
+      line = line.trim();
       if (line.startsWith(":")) {
         line = line.substring(1);
       }
-      final CommandParser commandParser = CommandParser.getInstance();
       try {
         final ExCommand command = commandParser.parse(line);
-        final CommandHandler commandHandler = commandParser.getCommandHandler(command);
-        if (commandHandler instanceof VimScriptCommandHandler) {
-          final VimScriptCommandHandler handler = (VimScriptCommandHandler)commandHandler;
-          handler.execute(command);
+        final String name = command.getCommand();
+        if (isCommand(name, "if", "if")) {
+          final VimScript.Conditional conditional = scripts.peek().addConditional();
+          conditionals.push(conditional);
+          scripts.push(conditional.addBranch(compileCondition(command.getArgument())));
+        }
+        else if (isCommand(name, "elsei", "elseif") && !conditionals.isEmpty()) {
+          scripts.pop();
+          scripts.push(conditionals.peek().addBranch(compileCondition(command.getArgument())));
+        }
+        else if (isCommand(name, "el", "else") && !conditionals.isEmpty()) {
+          scripts.pop();
+          scripts.push(conditionals.peek().addBranch(null));
+        }
+        else if (isCommand(name, "en", "endif") && !conditionals.isEmpty()) {
+          scripts.pop();
+          conditionals.pop();
+        }
+        else {
+          final CommandHandler commandHandler = commandParser.getCommandHandler(command);
+          if (commandHandler instanceof VimScriptCommandHandler) {
+            scripts.peek().add(command, (VimScriptCommandHandler)commandHandler);
+          }
         }
       }
       catch (ExException ignored) {
       }
     }
+    return script;
   }
 
   @NotNull
   public static Object evaluate(@NotNull String expression, @NotNull Map<String, Object> globals) throws ExException {
-    // This evaluator is very basic, no proper parsing whatsoever. It is here as the very first step necessary to
-    // support mapleader, VIM-650. See also VIM-669.
-    Matcher m;
-    m = DOUBLE_QUOTED_STRING.matcher(expression);
-    if (m.matches()) {
-      return m.group(1);
-    }
-    m = SINGLE_QUOTED_STRING.matcher(expression);
-    if (m.matches()) {
-      return m.group(1);
-    }
-    m = REFERENCE_EXPR.matcher(expression);
-    if (m.matches()) {
-      final String name = m.group(1);
-      final Object value = globals.get(name);
-      if (value != null) {
-        return value;
-      }
-      else {
-        throw new ExException(String.format("Undefined variable: %s", name));
-      }
-    }
-    throw new ExException(String.format("Invalid expression: %s", expression));
+    return VimScriptExpression.compile(expression.trim()).evaluate(globals);
   }
 
   @NotNull
   public static String expressionToString(@NotNull Object value) throws ExException {
-    // TODO: Return meaningful value representations
-    if (value instanceof String) {
-      return (String)value;
+    if (value instanceof String || value instanceof Integer) {
+      return VimScriptExpression.toString(value);
     }
     throw new ExException(String.format("Cannot convert '%s' to string", value));
   }
 
+  private static boolean isCommand(@NotNull String command, @NotNull String required, @NotNull String full) {
+    return command.startsWith(required) && full.startsWith(command);
+  }
+
+  @NotNull
+  private static VimScriptExpression compileCondition(@NotNull String expression) {
+    try {
+      return VimScriptExpression.compile(expression.trim());
+    }
+    catch (final ExException e) {
+      // An invalid condition fails when it is evaluated, so the whole block is skipped like on other errors
+      return new VimScriptExpression() {
+        @NotNull
+        @Override
+        public Object evaluate(@NotNull Map<String, Object> globals) throws ExException {
+          throw e;
+        }
+      };
+    }
+  }
+
   @NotNull
   private static String readFile(@NotNull File file) throws IOException {
     final BufferedReader reader = new BufferedReader(new FileReader(file));
@@ -142,4 +185,16 @@ public class VimScriptParser {
     }
     return builder.toString();
   }
+
+  private static class CachedScript {
+    private final long modified;
+    private final int hash;
+    @NotNull private final VimScript script;
+
+    CachedScript(long modified, int hash, @NotNull VimScript script) {
+      this.modified = modified;
+      this.hash = hash;
+      this.script = script;
+    }
+  }
 }
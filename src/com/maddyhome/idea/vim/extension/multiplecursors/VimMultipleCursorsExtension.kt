@@ -3,6 +3,7 @@ package com.maddyhome.idea.vim.extension.multiplecursors
 import com.intellij.openapi.actionSystem.DataContext
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.editor.Caret
+import com.intellij.openapi.editor.CaretState
 import com.intellij.openapi.editor.Editor
 import com.intellij.openapi.editor.VisualPosition
 import com.maddyhome.idea.vim.VimPlugin
@@ -133,10 +134,9 @@ class VimMultipleCursorsExtension : VimNonDisposableExtension() {
       if (caretModel.caretCount > 1) return
 
       val primaryCaret = caretModel.primaryCaret
-      var nextOffset = if (CommandState.getInstance(editor).mode == CommandState.Mode.VISUAL) {
+      if (CommandState.getInstance(editor).mode == CommandState.Mode.VISUAL) {
         val selectedText = primaryCaret.selectedText ?: return
-        val nextOffset = VimPlugin.getSearch().search(editor, selectedText, 1, Command.FLAG_SEARCH_FWD, false)
-        nextOffset
+        VimPlugin.getSearch().search(editor, selectedText, 1, Command.FLAG_SEARCH_FWD, false)
       }
       else {
         val range = findWordUnderCursor(editor, primaryCaret) ?: return
@@ -146,18 +146,24 @@ class VimMultipleCursorsExtension : VimNonDisposableExtension() {
         findNextOccurrence(editor, primaryCaret, range, whole)
       }
 
-      val firstOffset = primaryCaret.selectionStart
-      val newPositions = arrayListOf(nextOffset, firstOffset)
-      while (nextOffset != firstOffset) {
-        nextOffset = VimPlugin.getSearch().searchNextFromOffset(editor, nextOffset + 1, 1)
-        newPositions += nextOffset
-      }
-
       val pattern = primaryCaret.selectedText ?: return
-      newPositions.sorted().forEach {
-        val caret = caretModel.addCaret(editor.offsetToVisualPosition(it)) ?: return
-        selectWord(editor, caret, pattern, it)
+      val matches = VimPlugin.getSearch().findAllMatches(editor)
+      if (matches.isEmpty()) return
+
+      // Scan the file once and create all the carets in a single batch, the last one becomes the primary caret
+      val fileSize = EditorHelper.getFileSize(editor)
+      caretModel.setCaretsAndSelections(matches.map {
+        val end = min(it.startOffset + pattern.length, fileSize)
+        CaretState(editor.offsetToLogicalPosition(end - 1), editor.offsetToLogicalPosition(it.startOffset),
+                   editor.offsetToLogicalPosition(end))
+      })
+      caretModel.allCarets.forEach {
+        CaretData.setVisualStart(it, it.selectionStart)
+        CaretData.setVisualEnd(it, it.offset)
+        CaretData.setVisualOffset(it, it.offset)
       }
+      val primary = caretModel.primaryCaret
+      VimPlugin.getMark().setVisualSelectionMarks(editor, TextRange(primary.selectionStart, primary.offset))
     }
   }
 
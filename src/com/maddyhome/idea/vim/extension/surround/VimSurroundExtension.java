@@ -29,10 +29,12 @@ import com.maddyhome.idea.vim.command.CommandState;
 import com.maddyhome.idea.vim.command.MappingMode;
 import com.maddyhome.idea.vim.command.SelectionType;
 import com.maddyhome.idea.vim.common.Mark;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.extension.VimExtensionHandler;
 import com.maddyhome.idea.vim.extension.VimNonDisposableExtension;
 import com.maddyhome.idea.vim.group.ChangeGroup;
+import com.maddyhome.idea.vim.helper.CaretData;
 import com.maddyhome.idea.vim.helper.EditorHelper;
 import com.maddyhome.idea.vim.key.OperatorFunction;
 import org.jetbrains.annotations.NotNull;
@@ -41,8 +43,10 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.maddyhome.idea.vim.extension.VimExtensionFacade.*;
 import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
@@ -148,6 +152,9 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
         return;
       }
 
+      // The operator moves the carets of a multi-caret selection by itself
+      final boolean moveCaret = editor.getCaretModel().getCaretCount() == 1 || CommandState.inVisualBlockMode(editor);
+
       // NB: Operator ignores SelectionType anyway
       if (!new Operator().apply(editor, context, SelectionType.CHARACTER_WISE)) {
         return;
@@ -156,7 +163,9 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
       WriteAction.run(() -> {
         // Leave visual mode
         executeNormal(parseKeys("<Esc>"), editor);
-        editor.getCaretModel().moveToOffset(visualRange.getStartOffset());
+        if (moveCaret) {
+          editor.getCaretModel().moveToOffset(visualRange.getStartOffset());
+        }
       });
     }
 
@@ -184,6 +193,15 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
     }
 
     static void change(@NotNull Editor editor, char charFrom, @Nullable Pair<String, String> newSurround) {
+      if (editor.getCaretModel().getCaretCount() > 1) {
+        changeAll(editor, charFrom, newSurround);
+      }
+      else {
+        changeOne(editor, charFrom, newSurround);
+      }
+    }
+
+    private static void changeOne(@NotNull Editor editor, char charFrom, @Nullable Pair<String, String> newSurround) {
       // We take over the " register, so preserve it
       final List<KeyStroke> oldValue = getRegister(REGISTER);
 
@@ -211,6 +229,79 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
       executeNormal(parseKeys("`["), editor);
     }
 
+    /**
+     * Changes the surrounding of every caret. The delimiters of all the carets are found first and then replaced in a
+     * single batch, carets within the same surrounding change it only once.
+     */
+    private static void changeAll(@NotNull Editor editor, char charFrom, @Nullable Pair<String, String> newSurround) {
+      final List<Caret> carets = editor.getCaretModel().getAllCarets();
+      final TextEdits edits = new TextEdits(carets.size() * 2);
+      final Set<Integer> changed = new HashSet<>();
+      final int[] offsets = new int[carets.size()];
+      for (int i = 0; i < carets.size(); i++) {
+        final Pair<TextRange, TextRange> delimiters = findDelimiters(editor, carets.get(i), charFrom);
+        if (delimiters == null) {
+          offsets[i] = -1;
+          continue;
+        }
+        final TextRange open = delimiters.getFirst();
+        final TextRange close = delimiters.getSecond();
+        offsets[i] = open.getStartOffset();
+        if (changed.add(open.getStartOffset())) {
+          edits.replace(open.getStartOffset(), open.getEndOffset(), newSurround != null ? newSurround.getFirst() : "");
+          edits.replace(close.getStartOffset(), close.getEndOffset(),
+                        newSurround != null ? newSurround.getSecond() : "");
+        }
+      }
+      if (edits.isEmpty() || edits.hasOverlaps()) {
+        return;
+      }
+
+      VimPlugin.getChange().applyEdits(editor, edits);
+      for (int i = 0; i < carets.size(); i++) {
+        if (offsets[i] >= 0) {
+          carets.get(i).moveToOffset(edits.shiftOffset(offsets[i]));
+        }
+      }
+    }
+
+    /**
+     * Finds the opening and the closing delimiter that surround the caret without changing anything. The delimiters
+     * are the text of the "a" text object that isn't part of the "i" one, the same text {@link #changeOne} deletes.
+     *
+     * @return The ranges of the delimiters or null if there is no such surrounding
+     */
+    @Nullable
+    private static Pair<TextRange, TextRange> findDelimiters(@NotNull Editor editor, @NotNull Caret caret,
+                                                             char charFrom) {
+      final TextRange outer = findTextObjectRange(editor, caret, pick(charFrom), true);
+      final TextRange inner = findTextObjectRange(editor, caret, pick(charFrom), false);
+      if (outer == null || inner == null) {
+        return null;
+      }
+      return Pair.create(new TextRange(outer.getStartOffset(), inner.getStartOffset()),
+                         new TextRange(inner.getEndOffset() + 1, outer.getEndOffset() + 1));
+    }
+
+    /**
+     * Finds the range of the block text object for the character like the "i" and "a" motions do
+     *
+     * @return The range with an inclusive end or null if there is no such block
+     */
+    @Nullable
+    private static TextRange findTextObjectRange(@NotNull Editor editor, @NotNull Caret caret, char type,
+                                                 boolean isOuter) {
+      switch (type) {
+        case 'b': case '(': case ')': return VimPlugin.getMotion().getBlockRange(editor, caret, 1, isOuter, '(');
+        case 'B': case '{': case '}': return VimPlugin.getMotion().getBlockRange(editor, caret, 1, isOuter, '{');
+        case '[': case ']': return VimPlugin.getMotion().getBlockRange(editor, caret, 1, isOuter, '[');
+        case '<': case '>': return VimPlugin.getMotion().getBlockRange(editor, caret, 1, isOuter, '<');
+        case '"': case '\'': case '`': return VimPlugin.getMotion().getBlockQuoteRange(editor, caret, type, isOuter);
+        case 't': return VimPlugin.getMotion().getBlockTagRange(editor, caret, 1, isOuter);
+        default: return null;
+      }
+    }
+
     @NotNull
     private static String escape(@NotNull String sequence) {
       return sequence.replace("<", "\\<");
@@ -270,11 +361,16 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
       if (pair == null) {
         return false;
       }
-      // XXX: Will it work with line-wise or block-wise selections?
-      final TextRange range = getSurroundRange(editor);
-      if (range == null) {
+      final List<Pair<Caret, TextRange>> targets = getSurroundTargets(editor);
+      if (targets.isEmpty()) {
         return false;
       }
+      if (editor.getCaretModel().getCaretCount() > 1) {
+        WriteAction.run(() -> surroundAll(editor, targets, pair));
+        return true;
+      }
+      // XXX: Will it work with line-wise or block-wise selections?
+      final TextRange range = targets.get(0).getSecond();
       WriteAction.run(() -> {
         final ChangeGroup change = VimPlugin.getChange();
         final String leftSurround = pair.getFirst();
@@ -290,17 +386,71 @@ public class VimSurroundExtension extends VimNonDisposableExtension {
       return true;
     }
 
+    /**
+     * Surrounds all the ranges in a single batch and moves each caret to the start of its surrounding
+     */
+    private static void surroundAll(@NotNull Editor editor, @NotNull List<Pair<Caret, TextRange>> targets,
+                                    @NotNull Pair<String, String> pair) {
+      final TextEdits edits = new TextEdits(targets.size() * 2);
+      for (Pair<Caret, TextRange> target : targets) {
+        edits.insert(target.getSecond().getStartOffset(), pair.getFirst());
+        edits.insert(target.getSecond().getEndOffset(), pair.getSecond());
+      }
+
+      VimPlugin.getChange().applyEdits(editor, edits);
+      for (Pair<Caret, TextRange> target : targets) {
+        final Caret caret = target.getFirst();
+        if (caret != null) {
+          caret.moveToOffset(edits.shiftOffset(target.getSecond().getStartOffset()));
+        }
+      }
+    }
+
+    /**
+     * Gets the ranges to surround: the motion range of each caret, the selection of each caret or the lines of a
+     * visual block. The carets of a visual block aren't moved, visual mode is left afterwards anyway.
+     */
+    @NotNull
+    private static List<Pair<Caret, TextRange>> getSurroundTargets(@NotNull Editor editor) {
+      final List<Pair<Caret, TextRange>> res = new ArrayList<>();
+      final CommandState state = CommandState.getInstance(editor);
+      if (state.getMode() == CommandState.Mode.VISUAL && state.getSubMode() == CommandState.SubMode.VISUAL_BLOCK) {
+        final TextRange block = VimPlugin.getMotion().getVisualRange(editor);
+        final int[] starts = block.getStartOffsets();
+        final int[] ends = block.getEndOffsets();
+        for (int i = 0; i < starts.length; i++) {
+          if (starts[i] < ends[i]) {
+            res.add(Pair.create(null, new TextRange(starts[i], ends[i])));
+          }
+        }
+        return res;
+      }
+
+      for (Caret caret : editor.getCaretModel().getAllCarets()) {
+        final TextRange range = getSurroundRange(editor, caret, state);
+        if (range != null) {
+          res.add(Pair.create(caret, range));
+        }
+      }
+      return res;
+    }
+
     @Nullable
-    private TextRange getSurroundRange(@NotNull Editor editor) {
-      final CommandState.Mode mode = CommandState.getInstance(editor).getMode();
-      switch (mode) {
+    private static TextRange getSurroundRange(@NotNull Editor editor, @NotNull Caret caret,
+                                              @NotNull CommandState state) {
+      switch (state.getMode()) {
         case COMMAND:
-          return VimPlugin.getMark().getChangeMarks(editor);
+          return CaretData.getOperatorRange(caret);
         case VISUAL:
-          final TextRange visualRange = VimPlugin.getMark().getVisualSelectionMarks(editor);
-          if (visualRange == null) return null;
-          final int exclusiveEnd = EditorHelper.normalizeOffset(editor, visualRange.getEndOffset() + 1);
-          return new TextRange(visualRange.getStartOffset(), exclusiveEnd);
+          // The range of the visual selection marks, computed for each caret since the marks hold only one of them
+          int start = Math.min(CaretData.getVisualStart(caret), CaretData.getVisualEnd(caret));
+          int end = Math.max(CaretData.getVisualStart(caret), CaretData.getVisualEnd(caret));
+          if (state.getSubMode() == CommandState.SubMode.VISUAL_LINE) {
+            start = EditorHelper.getLineStartForOffset(editor, start);
+            end = EditorHelper.getLineEndForOffset(editor, end);
+          }
+          final int exclusiveEnd = EditorHelper.normalizeOffset(editor, end + 1);
+          return new TextRange(start, exclusiveEnd);
         default:
           return null;
       }
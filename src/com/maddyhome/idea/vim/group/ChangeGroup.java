@@ -17,7 +17,6 @@
  */
 package com.maddyhome.idea.vim.group;
 
-import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.intellij.application.options.CodeStyle;
@@ -34,7 +33,7 @@ import com.intellij.openapi.editor.actionSystem.ActionPlan;
 import com.intellij.openapi.editor.actionSystem.TypedActionHandler;
 import com.intellij.openapi.editor.actionSystem.TypedActionHandlerEx;
 import com.intellij.openapi.editor.event.*;
-import com.intellij.openapi.editor.impl.TextRangeInterval;
+import com.intellij.openapi.editor.ex.util.EditorUtil;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.fileTypes.FileTypeManager;
@@ -43,14 +42,17 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.codeStyle.CodeStyleSettings;
 import com.intellij.util.ArrayUtil;
+import com.intellij.util.DocumentUtil;
 import com.maddyhome.idea.vim.EventFacade;
 import com.maddyhome.idea.vim.KeyHandler;
 import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.*;
 import com.maddyhome.idea.vim.common.Register;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.ex.LineRange;
 import com.maddyhome.idea.vim.handler.CaretOrder;
+import com.maddyhome.idea.vim.handler.ExecuteMethodNotOverriddenException;
 import com.maddyhome.idea.vim.helper.*;
 import com.maddyhome.idea.vim.option.BoundListOption;
 import com.maddyhome.idea.vim.option.Options;
@@ -60,9 +62,9 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Provides all the insert/replace related functionality
@@ -71,6 +73,12 @@ import java.util.List;
 public class ChangeGroup {
 
   private static final int MAX_REPEAT_CHARS_COUNT = 10000;
+  private static final int BULK_EDITS_COUNT = 100;
+  /**
+   * The longest run of unchanged characters that is copied into a replacement rather than splitting it
+   */
+  private static final int MAX_COPIED_GAP = 32;
+  private static final int MAX_REPLACEMENT_LENGTH = 64 * 1024;
 
   private static final String VIM_MOTION_BIG_WORD_RIGHT = "VimMotionBigWordRight";
   private static final String VIM_MOTION_WORD_RIGHT = "VimMotionWordRight";
@@ -475,10 +483,9 @@ public class ChangeGroup {
   private class InsertActionsDocumentListener implements DocumentListener {
     @Override
     public void documentChanged(@NotNull DocumentEvent e) {
-      final String newFragment = e.getNewFragment().toString();
-      final String oldFragment = e.getOldFragment().toString();
+      final CharSequence newFragment = e.getNewFragment();
       final int newFragmentLength = newFragment.length();
-      final int oldFragmentLength = oldFragment.length();
+      final int oldFragmentLength = e.getOldFragment().length();
 
       // Repeat buffer limits
       if (repeatCharsCount > MAX_REPEAT_CHARS_COUNT) {
@@ -487,47 +494,96 @@ public class ChangeGroup {
 
       // <Enter> is added to strokes as an action during processing in order to indent code properly in the repeat
       // command
-      if (newFragment.startsWith("\n") && newFragment.trim().isEmpty()) {
-        strokes.addAll(getAdjustCaretActions(e));
+      final boolean blank = isBlank(newFragment);
+      if (newFragmentLength > 0 && newFragment.charAt(0) == '\n' && blank) {
+        final int delta = getCaretDelta(e);
+        if (delta != 0) {
+          strokes.add(new InsertEdit(delta, 0));
+        }
         oldOffset = -1;
         return;
       }
 
       // Ignore multi-character indents as they should be inserted automatically while repeating <Enter> actions
-      if (newFragmentLength > 1 && newFragment.trim().isEmpty()) {
+      if (newFragmentLength > 1 && blank) {
         return;
       }
 
-      strokes.addAll(getAdjustCaretActions(e));
+      final int delta = getCaretDelta(e);
+      final Object last = strokes.isEmpty() ? null : strokes.get(strokes.size() - 1);
+      if (!(last instanceof InsertEdit) || !((InsertEdit)last).merge(delta, oldFragmentLength, newFragment)) {
+        final InsertEdit edit = new InsertEdit(delta, oldFragmentLength);
+        edit.text.append(newFragment);
+        strokes.add(edit);
+      }
+      repeatCharsCount += newFragmentLength;
+      oldOffset = e.getOffset() + newFragmentLength;
+    }
+
+    private int getCaretDelta(@NotNull DocumentEvent e) {
+      return oldOffset >= 0 ? e.getOffset() - oldOffset : 0;
+    }
 
-      if (oldFragmentLength > 0) {
-        final AnAction editorDelete = ActionManager.getInstance().getAction("EditorDelete");
-        for (int i = 0; i < oldFragmentLength; i++) {
-          strokes.add(editorDelete);
+    private boolean isBlank(@NotNull CharSequence text) {
+      for (int i = 0; i < text.length(); i++) {
+        if (text.charAt(i) > ' ') {
+          return false;
         }
       }
+      return true;
+    }
+  }
 
-      if (newFragmentLength > 0) {
-        strokes.add(newFragment.toCharArray());
+  /**
+   * One entry of the insert repeat log: move the caret by a number of characters, delete some characters after it and
+   * insert a text. Consecutive typing, backspaces and forward deletes are merged into a single entry.
+   */
+  private static class InsertEdit {
+    private final int caretDelta;
+    private int deleteCount;
+    @NotNull private final StringBuilder text = new StringBuilder();
+
+    InsertEdit(int caretDelta, int deleteCount) {
+      this.caretDelta = caretDelta;
+      this.deleteCount = deleteCount;
+    }
+
+    /**
+     * Tries to merge a document change that follows this entry.
+     *
+     * @param delta    The distance between the end of this entry and the start of the change
+     * @param deleted  The number of deleted characters
+     * @param inserted The inserted text
+     * @return true if the change is now a part of this entry
+     */
+    boolean merge(int delta, int deleted, @NotNull CharSequence inserted) {
+      if (delta == 0) {
+        // Typing, replacing or forward delete right after this entry
+        deleteCount += deleted;
+        text.append(inserted);
+        return true;
       }
-      repeatCharsCount += newFragmentLength;
-      oldOffset = e.getOffset() + newFragmentLength;
+      if (delta < 0 && deleted == -delta && deleted <= text.length()) {
+        // Backspace over text inserted by this entry
+        text.setLength(text.length() - deleted);
+        text.append(inserted);
+        return true;
+      }
+      return false;
     }
 
-    @NotNull
-    private List<AnAction> getAdjustCaretActions(@NotNull DocumentEvent e) {
-      final int delta = e.getOffset() - oldOffset;
-      if (oldOffset >= 0 && delta != 0) {
-        final List<AnAction> positionCaretActions = new ArrayList<>();
-        final String motionName = delta < 0 ? "VimMotionLeft" : "VimMotionRight";
-        final AnAction action = ActionManager.getInstance().getAction(motionName);
-        final int count = Math.abs(delta);
-        for (int i = 0; i < count; i++) {
-          positionCaretActions.add(action);
-        }
-        return positionCaretActions;
+    boolean isPlainText() {
+      return caretDelta == 0 && deleteCount == 0;
+    }
+
+    void apply(@NotNull Editor editor, @NotNull Caret caret) {
+      final Document document = editor.getDocument();
+      final int offset = Math.max(0, Math.min(caret.getOffset() + caretDelta, document.getTextLength()));
+      final int end = Math.min(offset + deleteCount, document.getTextLength());
+      if (offset < end || text.length() > 0) {
+        document.replaceString(offset, end, text);
       }
-      return Collections.emptyList();
+      caret.moveToOffset(offset + text.length());
     }
   }
 
@@ -539,8 +595,12 @@ public class ChangeGroup {
    * @param count   The number of times to repeat the previous insert
    */
   private void repeatInsert(@NotNull Editor editor, @NotNull DataContext context, int count, boolean started) {
+    final String repeatText = getRepeatText();
     for (Caret caret : editor.getCaretModel().getAllCarets()) {
-      if (repeatLines > 0) {
+      if (repeatLines > 0 && repeatText != null) {
+        repeatBlockInsertText(editor, context, caret, repeatText, count, started);
+      }
+      else if (repeatLines > 0) {
         final int visualLine = caret.getVisualPosition().line;
         final int logicalLine = caret.getLogicalPosition().line;
         final int position = editor.logicalPositionToOffset(new LogicalPosition(logicalLine, repeatColumn));
@@ -580,6 +640,76 @@ public class ChangeGroup {
     repeatAppend = false;
   }
 
+  /**
+   * Repeats a plain text insert on every line of a visual block. The insert offsets and the padding of short lines are
+   * computed for all the lines first and then applied as one batch of edits.
+   *
+   * @param editor  The editor to insert into
+   * @param context The data context
+   * @param caret   The caret on the first line of the block
+   * @param text    The text of the previous insert
+   * @param count   The number of times to repeat the previous insert
+   * @param started True if the text has already been inserted once on the first line
+   */
+  private void repeatBlockInsertText(@NotNull Editor editor, @NotNull DataContext context, @NotNull Caret caret,
+                                     @NotNull String text, int count, boolean started) {
+    final int visualLine = caret.getVisualPosition().line;
+    final int logicalLine = caret.getLogicalPosition().line;
+    final int position = editor.logicalPositionToOffset(new LogicalPosition(logicalLine, repeatColumn));
+    final int lineCount = editor.getDocument().getLineCount();
+
+    final String firstLineText = StringUtil.repeat(text, count);
+    final String otherLinesText = started ? firstLineText + text : firstLineText;
+    final TextEdits edits = new TextEdits(repeatLines);
+    for (int i = 0; i < repeatLines && logicalLine + i < lineCount; i++) {
+      final String lineText = i == 0 ? firstLineText : otherLinesText;
+      if (repeatColumn >= MotionGroup.LAST_COLUMN) {
+        edits.insert(VimPlugin.getMotion().moveCaretToLineEnd(editor, logicalLine + i, true), lineText);
+        continue;
+      }
+
+      final int lineLength = EditorHelper.getVisualLineLength(editor, visualLine + i);
+      if (repeatAppend && lineLength < repeatColumn) {
+        final String pad = EditorHelper.pad(editor, context, logicalLine + i, repeatColumn);
+        if (pad.length() > 0) {
+          edits.insert(editor.getDocument().getLineEndOffset(logicalLine + i), pad + lineText);
+          continue;
+        }
+      }
+      if (lineLength >= repeatColumn) {
+        edits.insert(EditorHelper.visualPositionToOffset(editor, new VisualPosition(visualLine + i, repeatColumn)),
+                     lineText);
+      }
+    }
+
+    applyEdits(editor, edits);
+    MotionGroup.moveCaret(editor, caret, position);
+  }
+
+  /**
+   * Gets the previous insert as plain text
+   *
+   * @return The inserted text or null if the insert contains any actions besides typing text
+   */
+  @Nullable
+  private String getRepeatText() {
+    if (lastStrokes == null) {
+      return null;
+    }
+
+    final StringBuilder res = new StringBuilder();
+    for (Object lastStroke : lastStrokes) {
+      if (lastStroke instanceof InsertEdit && ((InsertEdit)lastStroke).isPlainText()) {
+        res.append(((InsertEdit)lastStroke).text);
+      }
+      else {
+        return null;
+      }
+    }
+
+    return res.toString();
+  }
+
   /**
    * This repeats the previous insert count times
    *
@@ -592,16 +722,23 @@ public class ChangeGroup {
       return;
     }
 
+    final String text = getRepeatText();
     for (Caret caret : editor.getCaretModel().getAllCarets()) {
+      if (text != null) {
+        if (count > 0 && text.length() > 0) {
+          insertText(editor, caret, StringUtil.repeat(text, count));
+        }
+        continue;
+      }
+
       for (int i = 0; i < count; i++) {
         for (Object lastStroke : lastStrokes) {
           if (lastStroke instanceof AnAction) {
             KeyHandler.executeAction((AnAction)lastStroke, context);
             strokes.add(lastStroke);
           }
-          else if (lastStroke instanceof char[]) {
-            final char[] chars = (char[])lastStroke;
-            insertText(editor, caret, new String(chars));
+          else if (lastStroke instanceof InsertEdit) {
+            ((InsertEdit)lastStroke).apply(editor, caret);
           }
         }
       }
@@ -928,7 +1065,8 @@ public class ChangeGroup {
   }
 
   /**
-   * This does the actual joining of the lines
+   * This does the actual joining of the lines. The text between every pair of joined lines is computed in a single
+   * pass over the unchanged document and all the joins are applied as one batch of edits.
    *
    * @param editor    The editor to join the lines in
    * @param caret     The caret on the starting line (to be moved)
@@ -940,28 +1078,72 @@ public class ChangeGroup {
    */
   private boolean deleteJoinNLines(@NotNull Editor editor, @NotNull Caret caret, int startLine, int count,
                                    boolean spaces) {
-    // start my moving the cursor to the very end of the first line
-    MotionGroup.moveCaret(editor, caret, VimPlugin.getMotion().moveCaretToLineEnd(editor, startLine, true), true);
+    final LineCursor cursor = new LineCursor(editor);
+    if (!cursor.moveToLine(startLine)) {
+      return false;
+    }
+
+    final CharSequence chars = cursor.getChars();
+    final boolean joinSpaces = Options.getInstance().isSet("joinspaces");
+    final TextEdits edits = new TextEdits(count);
+
+    // The last two characters of the joined line so far, '\0' if there are none
+    char last = cursor.getLength() > 0 ? chars.charAt(cursor.getEndOffset() - 1) : '\u0000';
+    char beforeLast = cursor.getLength() > 1 ? chars.charAt(cursor.getEndOffset() - 2) : '\u0000';
+    boolean hasText = cursor.getLength() > 0;
+    int lastJoin = -1;
     for (int i = 1; i < count; i++) {
-      int start = VimPlugin.getMotion().moveCaretToLineEnd(editor, caret);
-      int trailingWhitespaceStart = VimPlugin.getMotion().moveCaretToLineEndSkipLeadingOffset(editor, caret, 0);
-      boolean hasTrailingWhitespace = start != trailingWhitespaceStart + 1;
+      final int joinStart = cursor.getEndOffset();
+      if (!cursor.next()) {
+        break;
+      }
 
-      MotionGroup.moveCaret(editor, caret, start, true);
-      int offset;
-      if (spaces) {
-        offset = VimPlugin.getMotion().moveCaretToLineStartSkipLeadingOffset(editor, caret, 1);
+      final int textStart = spaces ? cursor.getLeadingCharacterOffset() : cursor.getStartOffset();
+      final int textEnd = cursor.getEndOffset();
+      String separator = "";
+      if (spaces && textStart < textEnd && hasText && chars.charAt(textStart) != ')' && last != '\t') {
+        // Don't add a space if the line already ends with one
+        char end = last;
+        if (last == ' ') {
+          end = beforeLast;
+        }
+        else {
+          separator = " ";
+        }
+        if (joinSpaces && (end == '.' || end == '?' || end == '!')) {
+          separator += " ";
+        }
       }
-      else {
-        offset = VimPlugin.getMotion().moveCaretToLineStart(editor, caret.getLogicalPosition().line + 1);
+
+      edits.replace(joinStart, textStart, separator);
+      lastJoin = joinStart;
+
+      for (int j = 0; j < separator.length(); j++) {
+        beforeLast = last;
+        last = ' ';
+      }
+      if (textEnd - textStart > 1) {
+        beforeLast = chars.charAt(textEnd - 2);
+      }
+      else if (textEnd - textStart == 1) {
+        beforeLast = last;
       }
-      deleteText(editor, new TextRange(caret.getOffset(), offset), null);
-      if (spaces && !hasTrailingWhitespace) {
-        insertText(editor, caret, " ");
-        MotionGroup.moveCaret(editor, caret, VimPlugin.getMotion().moveCaretHorizontal(editor, caret, -1, true), true);
+      if (textEnd > textStart) {
+        last = chars.charAt(textEnd - 1);
+        hasText = true;
       }
+      hasText |= separator.length() > 0;
     }
 
+    if (lastJoin < 0) {
+      return false;
+    }
+
+    // The caret ends up where the last two lines were joined, on the first inserted space if there is one
+    final int caretOffset = edits.shiftOffset(lastJoin);
+    applyEdits(editor, edits);
+    MotionGroup.moveCaret(editor, caret, caretOffset, true);
+
     return true;
   }
 
@@ -1137,16 +1319,15 @@ public class ChangeGroup {
       logger.debug("change range: " + range + " to " + ch);
     }
 
-    CharSequence chars = editor.getDocument().getCharsSequence();
+    final CharSequence chars = editor.getDocument().getCharsSequence();
+    final TextEdits edits = new TextEdits();
+    final StringBuilder buffer = new StringBuilder();
     int[] starts = range.getStartOffsets();
     int[] ends = range.getEndOffsets();
-    for (int j = ends.length - 1; j >= 0; j--) {
-      for (int i = starts[j]; i < ends[j]; i++) {
-        if (i < chars.length() && '\n' != chars.charAt(i)) {
-          replaceText(editor, i, i + 1, Character.toString(ch));
-        }
-      }
+    for (int j = 0; j < ends.length; j++) {
+      planCharacterChanges(chars, starts[j], ends[j], c -> c == '\n' ? c : ch, edits, buffer, editor.getDocument());
     }
+    applyInPlaceEdits(editor, edits, range.getStartOffset(), Math.min(range.getEndOffset(), chars.length()));
 
     return true;
   }
@@ -1429,11 +1610,32 @@ public class ChangeGroup {
     if (offset == -1) {
       return false;
     }
-    changeCase(editor, caret.getOffset(), offset, CharacterHelper.CASE_TOGGLE);
+    changeCase(editor, new TextRange(Math.min(caret.getOffset(), offset), Math.max(caret.getOffset(), offset)),
+               CharacterHelper.CASE_TOGGLE);
     MotionGroup.moveCaret(editor, caret, EditorHelper.normalizeOffset(editor, offset, false));
     return true;
   }
 
+  /**
+   * Plans {@link #changeCaseToggleCharacter(Editor, Caret, int)} without changing the document or moving the caret
+   *
+   * @param editor The editor to change
+   * @param caret  The caret on which the operation is performed
+   * @param count  The number of characters to change
+   * @param edits  The edits to add the change to
+   * @return The offset to move the caret to, relative to the unmodified document, or -1 if unable to change
+   */
+  public int planChangeCaseToggleCharacter(@NotNull Editor editor, @NotNull Caret caret, int count,
+                                           @NotNull TextEdits edits) {
+    final int offset = VimPlugin.getMotion().moveCaretHorizontal(editor, caret, count, true);
+    if (offset == -1) {
+      return -1;
+    }
+    planChangeCase(editor, caret.getOffset(), offset, CharacterHelper.CASE_TOGGLE, edits, new StringBuilder(), null);
+    // The case change keeps the document length, so the offset is valid in the changed document too
+    return EditorHelper.normalizeOffset(editor, offset, false);
+  }
+
   /**
    * Changes the case of all the character moved over by the motion argument.
    *
@@ -1462,37 +1664,138 @@ public class ChangeGroup {
    * @return true if able to delete the text, false if not
    */
   public boolean changeCaseRange(@NotNull Editor editor, @NotNull Caret caret, @NotNull TextRange range, char type) {
+    changeCase(editor, range, type);
+    MotionGroup.moveCaret(editor, caret, range.getStartOffset());
+    return true;
+  }
+
+  /**
+   * Plans {@link #changeCaseRange(Editor, Caret, TextRange, char)} without changing the document or moving the caret
+   *
+   * @param editor The editor to change
+   * @param range  The range to change
+   * @param type   The case change type (TOGGLE, UPPER, LOWER)
+   * @param edits  The edits to add the change to
+   * @return The offset to move the caret to, relative to the unmodified document
+   */
+  public int planChangeCaseRange(@NotNull Editor editor, @NotNull TextRange range, char type,
+                                 @NotNull TextEdits edits) {
+    planChangeCaseRange(editor, range, type, edits, null);
+    return range.getStartOffset();
+  }
+
+  private static void planChangeCaseRange(@NotNull Editor editor, @NotNull TextRange range, char type,
+                                          @NotNull TextEdits edits, @Nullable Document document) {
+    final StringBuilder buffer = new StringBuilder();
     int[] starts = range.getStartOffsets();
     int[] ends = range.getEndOffsets();
-    for (int i = ends.length - 1; i >= 0; i--) {
-      changeCase(editor, starts[i], ends[i], type);
+    for (int i = 0; i < ends.length; i++) {
+      planChangeCase(editor, starts[i], ends[i], type, edits, buffer, document);
     }
-    MotionGroup.moveCaret(editor, caret, range.getStartOffset());
-    return true;
   }
 
   /**
    * This performs the actual case change.
    *
    * @param editor The editor to change
-   * @param start  The start offset to change
-   * @param end    The end offset to change
+   * @param range  The range to change
    * @param type   The type of change (TOGGLE, UPPER, LOWER)
    */
-  private void changeCase(@NotNull Editor editor, int start, int end, char type) {
+  private void changeCase(@NotNull Editor editor, @NotNull TextRange range, char type) {
+    final TextEdits edits = new TextEdits();
+    planChangeCaseRange(editor, range, type, edits, editor.getDocument());
+    final int end = EditorHelper.normalizeOffset(editor, range.getEndOffset());
+    applyInPlaceEdits(editor, edits, range.getStartOffset(), end);
+  }
+
+  /**
+   * Computes the case change against the current document and adds it to the edits
+   *
+   * @param editor   The editor to change
+   * @param start    The start offset to change
+   * @param end      The end offset to change
+   * @param type     The type of change (TOGGLE, UPPER, LOWER)
+   * @param edits    The edits to add the change to
+   * @param buffer   The buffer for the replacement text, shared by the parts of a range
+   * @param document The document to apply the edits to as they grow, or null to only plan them
+   */
+  private static void planChangeCase(@NotNull Editor editor, int start, int end, char type, @NotNull TextEdits edits,
+                                     @NotNull StringBuilder buffer, @Nullable Document document) {
     if (start > end) {
       int t = end;
       end = start;
       start = t;
     }
     end = EditorHelper.normalizeOffset(editor, end);
+    planCharacterChanges(editor.getDocument().getCharsSequence(), start, end,
+                         ch -> CharacterHelper.changeCase((char)ch, type), edits, buffer, document);
+  }
 
-    CharSequence chars = editor.getDocument().getCharsSequence();
-    StringBuilder sb = new StringBuilder();
+  /**
+   * Maps every character of the range and adds replacements for the characters that changed.
+   * <p>
+   * The range is read once straight from the document. Unchanged text isn't replaced, except for short gaps between
+   * changed characters that are cheaper to copy than to split the replacement at. The replacements are limited in
+   * length, so changing the case of a huge file doesn't build a second copy of it in one piece.
+   * <p>
+   * Every character is replaced by exactly one character, so applying some of the edits doesn't move the offsets of
+   * the rest of the range. If a document is given, the edits collected so far are applied to it whenever their text
+   * reaches {@link #MAX_REPLACEMENT_LENGTH}, so only about that much replacement text is held at a time.
+   *
+   * @param chars     The document text
+   * @param start     The start offset of the range
+   * @param end       The end offset of the range
+   * @param transform The mapping of a character to its replacement
+   * @param edits     The edits to add the replacements to
+   * @param buffer    The buffer to collect the replacement text in
+   * @param document  The document to apply the edits to as they grow, or null to only plan them
+   */
+  private static void planCharacterChanges(@NotNull CharSequence chars, int start, int end,
+                                           @NotNull IntUnaryOperator transform, @NotNull TextEdits edits,
+                                           @NotNull StringBuilder buffer, @Nullable Document document) {
+    end = Math.min(end, chars.length());
+    buffer.setLength(0);
+    int changeStart = -1;
+    int changeEnd = -1;
     for (int i = start; i < end; i++) {
-      sb.append(CharacterHelper.changeCase(chars.charAt(i), type));
+      final char ch = chars.charAt(i);
+      final char changed = (char)transform.applyAsInt(ch);
+      if (changed == ch) {
+        continue;
+      }
+      if (changeStart >= 0 && (i - changeEnd > MAX_COPIED_GAP || buffer.length() >= MAX_REPLACEMENT_LENGTH)) {
+        edits.replace(changeStart, changeEnd, buffer.toString());
+        buffer.setLength(0);
+        changeStart = -1;
+        if (document != null && edits.getTextLength() >= MAX_REPLACEMENT_LENGTH) {
+          applyEditsInBulk(document, edits);
+          edits.clear();
+        }
+      }
+      if (changeStart < 0) {
+        changeStart = i;
+      }
+      else {
+        buffer.append(chars, changeEnd, i);
+      }
+      buffer.append(changed);
+      changeEnd = i + 1;
+    }
+    if (changeStart >= 0) {
+      edits.replace(changeStart, changeEnd, buffer.toString());
+    }
+  }
+
+  /**
+   * Applies edits that change characters in place and sets the change marks to the whole range, even if only some
+   * of its characters had to be replaced
+   */
+  private static void applyInPlaceEdits(@NotNull Editor editor, @NotNull TextEdits edits, int start, int end) {
+    if (!edits.isEmpty()) {
+      applyEditsInBulk(editor.getDocument(), edits);
     }
-    replaceText(editor, start, end, sb.toString());
+    VimPlugin.getMark().setChangeMarks(editor, new TextRange(start, end));
+    VimPlugin.getMark().setMark(editor, MarkGroup.MARK_CHANGE_POS, end);
   }
 
   public void autoIndentLines(@NotNull Editor editor, @NotNull Caret caret, @NotNull DataContext context, int count) {
@@ -1580,37 +1883,26 @@ public class ChangeGroup {
 
     final int sline = editor.offsetToLogicalPosition(range.getStartOffset()).line;
     final int eline = editor.offsetToLogicalPosition(range.getEndOffset()).line;
+    final LineCursor cursor = new LineCursor(editor);
+    final CharSequence chars = cursor.getChars();
+    final TextEdits edits = new TextEdits(eline - sline + 1);
 
     if (range.isMultiple()) {
       final int from = editor.offsetToLogicalPosition(range.getStartOffset()).column;
       final int size = indentSize * count;
       if (dir == 1) {
         // Right shift blockwise selection
-        final int tabCnt;
-        final int spcCnt;
-        if (useTabs) {
-          tabCnt = size / tabSize;
-          spcCnt = size % tabSize;
-        }
-        else {
-          tabCnt = 0;
-          spcCnt = size;
-        }
-
-        final String indent = StringUtil.repeat("\t", tabCnt) + StringUtil.repeat(" ", spcCnt);
+        final String indent = getIndentText(size, useTabs, tabSize);
 
         for (int l = sline; l <= eline; l++) {
           int len = EditorHelper.getLineLength(editor, l);
           if (len > from) {
-            LogicalPosition spos = new LogicalPosition(l, from);
-            caret.moveToOffset(editor.logicalPositionToOffset(spos));
-            insertText(editor, caret, indent);
+            edits.insert(editor.logicalPositionToOffset(new LogicalPosition(l, from)), indent);
           }
         }
       }
       else {
         // Left shift blockwise selection
-        CharSequence chars = editor.getDocument().getCharsSequence();
         for (int l = sline; l <= eline; l++) {
           int len = EditorHelper.getLineLength(editor, l);
           if (len > from) {
@@ -1625,38 +1917,36 @@ public class ChangeGroup {
               }
             }
             if (pos > wsoff) {
-              deleteText(editor, new TextRange(wsoff, pos), null);
+              edits.delete(wsoff, pos);
             }
           }
         }
       }
     }
     else {
-      // Shift non-blockwise selection
-      for (int l = sline; l <= eline; l++) {
-        final int soff = EditorHelper.getLineStartOffset(editor, l);
-        final int eoff = EditorHelper.getLineEndOffset(editor, l, true);
-        final int woff = VimPlugin.getMotion().moveCaretToLineStartSkipLeading(editor, l);
-        final int col = editor.offsetToVisualPosition(woff).column;
+      // Shift non-blockwise selection. The new leading whitespace of every line is computed up front from the
+      // unchanged document and only the lines whose indent actually changes are touched.
+      final int editorTabSize = EditorUtil.getTabSize(editor);
+      for (int l = sline; l <= eline && cursor.moveToLine(l); l++) {
+        final int soff = cursor.getStartOffset();
+        final int eoff = cursor.getEndOffset();
+        final int woff = cursor.getLeadingCharacterOffset();
+        int col = 0;
+        for (int i = soff; i < woff; i++) {
+          col = chars.charAt(i) == '\t' ? (col / editorTabSize + 1) * editorTabSize : col + 1;
+        }
         final int limit = Math.max(0, col + dir * indentSize * count);
         if (col > 0 || soff != eoff) {
-          final int tabsCnt;
-          final int spacesCnt;
-          if (useTabs) {
-            tabsCnt = limit / tabSize;
-            spacesCnt = limit % tabSize;
-          }
-          else {
-            tabsCnt = 0;
-            spacesCnt = limit;
+          final String indent = getIndentText(limit, useTabs, tabSize);
+          if (!StringUtil.equals(indent, chars.subSequence(soff, woff))) {
+            edits.replace(soff, woff, indent);
           }
-
-          final String indent = StringUtil.repeat("\t", tabsCnt) + StringUtil.repeat(" ", spacesCnt);
-          replaceText(editor, soff, woff, indent);
         }
       }
     }
 
+    applyEdits(editor, edits);
+
     if (!CommandState.inInsertMode(editor)) {
       if (!range.isMultiple()) {
         MotionGroup.moveCaret(editor, caret, VimPlugin.getMotion().moveCaretToLineStartSkipLeading(editor, sline));
@@ -1669,6 +1959,25 @@ public class ChangeGroup {
     CaretData.setLastColumn(editor, caret, caret.getVisualPosition().column);
   }
 
+  /**
+   * Builds the whitespace for an indent of the given width in columns
+   */
+  @NotNull
+  private static String getIndentText(int width, boolean useTabs, int tabSize) {
+    final int tabsCnt;
+    final int spacesCnt;
+    if (useTabs) {
+      tabsCnt = width / tabSize;
+      spacesCnt = width % tabSize;
+    }
+    else {
+      tabsCnt = 0;
+      spacesCnt = width;
+    }
+
+    return StringUtil.repeat("\t", tabsCnt) + StringUtil.repeat(" ", spacesCnt);
+  }
+
   /**
    * Inserts text into the document
    *
@@ -1676,7 +1985,7 @@ public class ChangeGroup {
    * @param caret  The caret to start insertion in
    * @param str    The text to insert
    */
-  public void insertText(@NotNull Editor editor, @NotNull Caret caret, @NotNull String str) {
+  public void insertText(@NotNull Editor editor, @NotNull Caret caret, @NotNull CharSequence str) {
     int start = caret.getOffset();
     editor.getDocument().insertString(start, str);
     caret.moveToOffset(start + str.length());
@@ -1704,8 +2013,17 @@ public class ChangeGroup {
       final Document document = editor.getDocument();
       final int[] startOffsets = range.getStartOffsets();
       final int[] endOffsets = range.getEndOffsets();
-      for (int i = range.size() - 1; i >= 0; i--) {
-        document.deleteString(startOffsets[i], endOffsets[i]);
+      if (range.isMultiple()) {
+        final TextEdits edits = new TextEdits(range.size());
+        for (int i = 0; i < range.size(); i++) {
+          edits.delete(startOffsets[i], endOffsets[i]);
+        }
+        if (!edits.isEmpty()) {
+          applyEditsInBulk(document, edits);
+        }
+      }
+      else {
+        document.deleteString(startOffsets[0], endOffsets[0]);
       }
 
       if (type != null) {
@@ -1736,6 +2054,111 @@ public class ChangeGroup {
     VimPlugin.getMark().setMark(editor, MarkGroup.MARK_CHANGE_POS, newEnd);
   }
 
+  /**
+   * Applies all the edits to the document as one update. The edits are made from the highest offset down, in the
+   * document's bulk mode for large batches, and the search highlights are refreshed once for the whole changed range
+   * instead of once per edit.
+   *
+   * @param editor The editor to change
+   * @param edits  The edits, with offsets relative to the current document
+   * @return The range covered by the edits in the changed document or null if there were no edits
+   */
+  @Nullable
+  public TextRange applyEdits(@NotNull final Editor editor, @NotNull final TextEdits edits) {
+    if (edits.isEmpty()) {
+      return null;
+    }
+
+    final int lastChange = edits.shiftOffset(edits.getStartOffset(edits.size() - 1));
+    final TextRange range = applyEditsInBulk(editor.getDocument(), edits);
+    VimPlugin.getMark().setChangeMarks(editor, range);
+    VimPlugin.getMark().setMark(editor, MarkGroup.MARK_CHANGE_POS, lastChange);
+    return range;
+  }
+
+  /**
+   * Plans the change of one caret, see {@link #applyPlannedEdits(Editor, CaretEditsPlanner)}
+   */
+  public interface CaretEditsPlanner {
+    /**
+     * Plans the change for the caret without changing the document or moving the caret
+     *
+     * @param edits The edits to add the change to, all offsets are relative to the unmodified document
+     * @return The offset to move the caret to after the change, relative to the unmodified document, or -1 if the
+     * change failed for this caret
+     */
+    int plan(@NotNull Caret caret, @NotNull TextEdits edits) throws ExecuteMethodNotOverriddenException;
+  }
+
+  /**
+   * Changes the text of all the carets as one document update.
+   * <p>
+   * The edits of all carets are planned against the unmodified document first and then applied together from the
+   * highest offset down, so the carets don't have to be processed in offset order and no caret's edit shifts the
+   * range of another one before it is computed. The carets are moved once all the edits are applied.
+   *
+   * @return The result of the change or null if the handler doesn't plan its changes or the planned edits overlap,
+   * the carets have to be processed one by one then
+   */
+  @Nullable
+  public Boolean applyPlannedEdits(@NotNull Editor editor, @NotNull CaretEditsPlanner planner) {
+    final List<Caret> carets = editor.getCaretModel().getAllCarets();
+    final TextEdits edits = new TextEdits(carets.size());
+    final int[] offsets = new int[carets.size()];
+    boolean res = true;
+    for (int i = 0; i < carets.size(); i++) {
+      try {
+        offsets[i] = planner.plan(carets.get(i), edits);
+      }
+      catch (ExecuteMethodNotOverriddenException e) {
+        return null;
+      }
+      if (offsets[i] < 0) {
+        res = false;
+      }
+    }
+    if (edits.hasOverlaps()) {
+      return null;
+    }
+
+    applyEdits(editor, edits);
+    for (int i = 0; i < carets.size(); i++) {
+      if (offsets[i] >= 0) {
+        MotionGroup.moveCaret(editor, carets.get(i), edits.shiftOffset(offsets[i]));
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Applies the edits like {@link #applyEdits(Editor, TextEdits)} but leaves the change marks alone
+   *
+   * @param document The document to change
+   * @param edits    The edits, must not be empty
+   * @return The range covered by the edits in the changed document
+   */
+  @NotNull
+  private static TextRange applyEditsInBulk(@NotNull final Document document, @NotNull final TextEdits edits) {
+    final int start = edits.getStartOffset();
+    final int end = edits.getEndOffset() + edits.getLengthDelta();
+    // The batch may be part of a larger bulk edit, like a :global command
+    final boolean bulkEditing = EditorData.isBulkEditing(document);
+    EditorData.setBulkEditing(document, true);
+    try {
+      DocumentUtil.executeInBulk(document, edits.size() > BULK_EDITS_COUNT, () -> {
+        for (int i = edits.size() - 1; i >= 0; i--) {
+          document.replaceString(edits.getStartOffset(i), edits.getEndOffset(i), edits.getText(i));
+        }
+      });
+    }
+    finally {
+      EditorData.setBulkEditing(document, bulkEditing);
+    }
+
+    VimPlugin.getSearch().updateHighlights(document, start, end);
+    return new TextRange(start, end);
+  }
+
   /**
    * Sort range of text with a given comparator
    *
@@ -1770,8 +2193,12 @@ public class ChangeGroup {
    */
   private boolean sortTextRange(@NotNull Editor editor, int start, int end,
                                 @NotNull Comparator<String> lineComparator) {
-    final String selectedText = editor.getDocument().getText(new TextRangeInterval(start, end));
-    final List<String> lines = Lists.newArrayList(Splitter.on("\n").split(selectedText));
+    final LineCursor cursor = new LineCursor(editor);
+    final CharSequence chars = cursor.getChars();
+    final List<String> lines = new ArrayList<>();
+    for (boolean valid = cursor.moveToOffset(start); valid && cursor.getStartOffset() <= end; valid = cursor.next()) {
+      lines.add(chars.subSequence(cursor.getStartOffset(), Math.min(cursor.getEndOffset(), end)).toString());
+    }
     if (lines.size() < 1) {
       return false;
     }
@@ -1821,76 +2248,158 @@ public class ChangeGroup {
         logger.debug("found range " + range);
         logger.debug("text=" + text);
       }
-      String number = text;
       if (text.length() == 0) {
         return false;
       }
 
-      char ch = text.charAt(0);
-      if (hex && text.toLowerCase().startsWith("0x")) {
-        for (int i = text.length() - 1; i >= 2; i--) {
-          int index = "abcdefABCDEF".indexOf(text.charAt(i));
-          if (index >= 0) {
-            lastLower = index < 6;
-            break;
+      final String number = changeNumberText(text, count, alpha, hex, octal);
+      if (!text.equals(number)) {
+        replaceText(editor, range.getStartOffset(), range.getEndOffset(), number);
+        caret.moveToOffset(range.getStartOffset() + number.length() - 1);
+      }
+
+      return true;
+    }
+  }
+
+  /**
+   * Adds count to the first number of each line in the range, see :help v_CTRL-A.
+   * <p>
+   * Each line is scanned once for a number of one of the 'nrformats' kinds. All the changes are applied as one batch,
+   * so renumbering a long list is a single document update.
+   *
+   * @param editor      The editor to change
+   * @param caret       The caret to move to the start of the range
+   * @param range       The range to change, one part per line in block mode
+   * @param count       The amount to add, negative to subtract
+   * @param progressive If true, every changed line adds count more than the previous one, see :help v_g_CTRL-A
+   * @return true if any number was changed, false if not
+   */
+  public boolean changeNumberRange(@NotNull Editor editor, @NotNull Caret caret, @NotNull TextRange range, int count,
+                                   boolean progressive) {
+    final BoundListOption nf = (BoundListOption)Options.getInstance().getOption("nrformats");
+    final boolean alpha = nf.contains("alpha");
+    final boolean hex = nf.contains("hex");
+    final boolean octal = nf.contains("octal");
+
+    final CharSequence chars = editor.getDocument().getCharsSequence();
+    final LineCursor cursor = new LineCursor(editor);
+    final TextEdits edits = new TextEdits();
+    int amount = count;
+    int[] starts = range.getStartOffsets();
+    int[] ends = range.getEndOffsets();
+    for (int i = 0; i < starts.length; i++) {
+      if (!cursor.moveToOffset(starts[i])) {
+        break;
+      }
+      do {
+        final int start = Math.max(starts[i], cursor.getStartOffset());
+        final int end = Math.min(ends[i], cursor.getEndOffset());
+        final TextRange number = SearchHelper.findNumberInRange(chars, start, end, alpha, hex, octal);
+        if (number == null) {
+          continue;
+        }
+        final String text = chars.subSequence(number.getStartOffset(), number.getEndOffset()).toString();
+        final String changed;
+        try {
+          changed = changeNumberText(text, amount, alpha, hex, octal);
+        }
+        catch (NumberFormatException e) {
+          continue;
+        }
+        if (!text.equals(changed)) {
+          edits.replace(number.getStartOffset(), number.getEndOffset(), changed);
+          if (progressive) {
+            amount += count;
           }
         }
+      }
+      while (cursor.getEndOffset() < ends[i] && cursor.next());
+    }
 
-        int num = (int)Long.parseLong(text.substring(2), 16);
-        num += count;
-        number = Integer.toHexString(num);
-        number = StringHelper.rightJustify(number, text.length() - 2, '0');
+    applyEdits(editor, edits);
+    MotionGroup.moveCaret(editor, caret, range.getStartOffset());
+    return !edits.isEmpty();
+  }
 
-        if (!lastLower) {
-          number = number.toUpperCase();
+  /**
+   * Adds count to the number and keeps its format
+   *
+   * @param text The number with its prefix, a single letter if alpha is set
+   * @return The changed number
+   */
+  @NotNull
+  private String changeNumberText(@NotNull String text, int count, boolean alpha, boolean hex, boolean octal) {
+    String number = text;
+    char ch = text.charAt(0);
+    if (hex && text.toLowerCase().startsWith("0x")) {
+      for (int i = text.length() - 1; i >= 2; i--) {
+        int index = "abcdefABCDEF".indexOf(text.charAt(i));
+        if (index >= 0) {
+          lastLower = index < 6;
+          break;
         }
+      }
+
+      int num = (int)Long.parseLong(text.substring(2), 16);
+      num += count;
+      number = Integer.toHexString(num);
+      number = StringHelper.rightJustify(number, text.length() - 2, '0');
 
-        number = text.substring(0, 2) + number;
+      if (!lastLower) {
+        number = number.toUpperCase();
       }
-      else if (octal && text.startsWith("0") && text.length() > 1) {
-        int num = (int)Long.parseLong(text, 8);
-        num += count;
-        number = Integer.toOctalString(num);
-        number = "0" + StringHelper.rightJustify(number, text.length() - 1, '0');
+
+      number = text.substring(0, 2) + number;
+    }
+    else if (octal && text.startsWith("0") && text.length() > 1 && isOctalNumber(text)) {
+      int num = (int)Long.parseLong(text, 8);
+      num += count;
+      number = Integer.toOctalString(num);
+      number = "0" + StringHelper.rightJustify(number, text.length() - 1, '0');
+    }
+    else if (alpha && Character.isLetter(ch)) {
+      ch += count;
+      if (Character.isLetter(ch)) {
+        number = "" + ch;
       }
-      else if (alpha && Character.isLetter(ch)) {
-        ch += count;
-        if (Character.isLetter(ch)) {
-          number = "" + ch;
-        }
+    }
+    else if (ch == '-' || Character.isDigit(ch)) {
+      boolean pad = ch == '0';
+      int len = text.length();
+      if (ch == '-' && text.charAt(1) == '0') {
+        pad = true;
+        len--;
       }
-      else if (ch == '-' || Character.isDigit(ch)) {
-        boolean pad = ch == '0';
-        int len = text.length();
-        if (ch == '-' && text.charAt(1) == '0') {
-          pad = true;
-          len--;
-        }
 
-        int num = Integer.parseInt(text);
-        num += count;
-        number = Integer.toString(num);
+      int num = Integer.parseInt(text);
+      num += count;
+      number = Integer.toString(num);
 
-        if (!octal && pad) {
-          boolean neg = false;
-          if (number.charAt(0) == '-') {
-            neg = true;
-            number = number.substring(1);
-          }
-          number = StringHelper.rightJustify(number, len, '0');
-          if (neg) {
-            number = "-" + number;
-          }
+      if ((!octal || !isOctalNumber(text)) && pad) {
+        boolean neg = false;
+        if (number.charAt(0) == '-') {
+          neg = true;
+          number = number.substring(1);
+        }
+        number = StringHelper.rightJustify(number, len, '0');
+        if (neg) {
+          number = "-" + number;
         }
       }
+    }
 
-      if (!text.equals(number)) {
-        replaceText(editor, range.getStartOffset(), range.getEndOffset(), number);
-        caret.moveToOffset(range.getStartOffset() + number.length() - 1);
-      }
+    return number;
+  }
 
-      return true;
+  private static boolean isOctalNumber(@NotNull String text) {
+    for (int i = 0; i < text.length(); i++) {
+      final char ch = text.charAt(i);
+      if (ch < '0' || ch > '7') {
+        return false;
+      }
     }
+    return true;
   }
 
   private final List<Object> strokes = new ArrayList<>();
@@ -31,6 +31,8 @@ import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.CommandState;
 import com.maddyhome.idea.vim.command.SelectionType;
 import com.maddyhome.idea.vim.common.Register;
+import com.maddyhome.idea.vim.common.RepeatedText;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.handler.CaretOrder;
 import com.maddyhome.idea.vim.helper.EditorHelper;
@@ -335,53 +337,61 @@ public class CopyGroup {
     int currentLine = startPosition.line;
 
     final int lineCount = StringUtil.getLineBreakCount(text) + 1;
-    if (currentLine + lineCount >= EditorHelper.getLineCount(editor)) {
+    if (currentLine + lineCount > EditorHelper.getLineCount(editor)) {
       final int limit = currentLine + lineCount - EditorHelper.getLineCount(editor);
-      for (int i = 0; i < limit; i++) {
-        MotionGroup.moveCaret(editor, caret, EditorHelper.getFileSize(editor, true));
-        VimPlugin.getChange().insertText(editor, caret, "\n");
-      }
+      MotionGroup.moveCaret(editor, caret, EditorHelper.getFileSize(editor, true));
+      VimPlugin.getChange().insertText(editor, caret, StringUtil.repeat("\n", limit));
     }
 
+    // All the offsets below refer to the document before any segment is inserted, the edits are applied at once.
+    // Every line of the block is built in one reused buffer, sized for all the copies of the segment.
     final int maxLen = getMaxSegmentLength(text);
+    final int tabSize = mode == CommandState.SubMode.VISUAL_LINE ? 0 : EditorHelper.getPadTabSize(editor, context);
     final StringTokenizer tokenizer = new StringTokenizer(text, "\n");
+    final TextEdits edits = new TextEdits(lineCount);
+    final StringBuilder line = new StringBuilder();
     int endOffset = startOffset;
     while (tokenizer.hasMoreTokens()) {
-      String segment = tokenizer.nextToken();
-      String origSegment = segment;
-
-      if (segment.length() < maxLen) {
-        segment += StringUtil.repeat(" ", maxLen - segment.length());
-
-        if (currentColumn != 0 && currentColumn < EditorHelper.getLineLength(editor, currentLine)) {
-          origSegment = segment;
-        }
-      }
-
-      final String pad = EditorHelper.pad(editor, context, currentLine, currentColumn);
-
-      final int insertOffset = editor.logicalPositionToOffset(new LogicalPosition(currentLine, currentColumn));
-      MotionGroup.moveCaret(editor, caret, insertOffset);
-      final String insertedText = origSegment + StringUtil.repeat(segment, count - 1);
-      VimPlugin.getChange().insertText(editor, caret, insertedText);
-      endOffset += insertedText.length();
+      final String segment = tokenizer.nextToken();
+      final int segmentPad = maxLen - segment.length();
+      line.setLength(0);
 
+      final int insertOffset;
+      final boolean padFirstSegment;
       if (mode == CommandState.SubMode.VISUAL_LINE) {
-        MotionGroup.moveCaret(editor, caret, endOffset);
-        VimPlugin.getChange().insertText(editor, caret, "\n");
-        ++endOffset;
+        // Every segment becomes a new line above the first line of the block
+        insertOffset = editor.getDocument().getLineStartOffset(startPosition.line);
+        padFirstSegment = false;
       }
       else {
-        if (pad.length() > 0) {
-          MotionGroup.moveCaret(editor, caret, insertOffset);
-          VimPlugin.getChange().insertText(editor, caret, pad);
-          endOffset += pad.length();
+        final int lineLength = EditorHelper.getLineLength(editor, currentLine);
+        if (lineLength < currentColumn) {
+          EditorHelper.appendPad(line, currentColumn - lineLength, tabSize);
         }
+        insertOffset = editor.logicalPositionToOffset(new LogicalPosition(currentLine, currentColumn));
+        padFirstSegment = currentColumn != 0 && currentColumn < lineLength;
       }
 
+      line.ensureCapacity(line.length() + maxLen * count + 1);
+      for (int i = 0; i < count; i++) {
+        line.append(segment);
+        if (i > 0 || padFirstSegment) {
+          appendSpaces(line, segmentPad);
+        }
+      }
+      if (mode == CommandState.SubMode.VISUAL_LINE) {
+        line.append('\n');
+      }
+      edits.insert(insertOffset, line.toString());
+      endOffset += line.length();
+
       ++currentLine;
     }
 
+    if (!edits.isEmpty()) {
+      VimPlugin.getChange().applyEdits(editor, edits);
+    }
+
     if (indent) endOffset = doIndent(editor, caret, context, startOffset, endOffset);
     moveCaret(editor, caret, type, mode, startOffset, endOffset, cursorAfter);
 
@@ -393,7 +403,7 @@ public class CopyGroup {
                                    @NotNull CommandState.SubMode mode, int startOffset, int count, boolean indent,
                                    boolean cursorAfter) {
     MotionGroup.moveCaret(editor, caret, startOffset);
-    final String insertedText = StringUtil.repeat(text, count);
+    final CharSequence insertedText = count > 1 ? new RepeatedText(text, count) : text;
     VimPlugin.getChange().insertText(editor, caret, insertedText);
 
     final int endOffset = indent ? doIndent(editor, caret, context, startOffset, startOffset + insertedText.length())
@@ -488,6 +498,12 @@ public class CopyGroup {
     return EditorHelper.getLineEndOffset(editor, endLine, true);
   }
 
+  private static void appendSpaces(@NotNull StringBuilder builder, int count) {
+    for (int i = count; i > 0; i--) {
+      builder.append(' ');
+    }
+  }
+
   private int getMaxSegmentLength(@NotNull String text) {
     final StringTokenizer tokenizer = new StringTokenizer(text, "\n");
     int maxLen = 0;
@@ -20,51 +20,107 @@ package com.maddyhome.idea.vim.group;
 
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.ex.ExOutputModel;
 import com.maddyhome.idea.vim.helper.EditorHelper;
+import com.maddyhome.idea.vim.helper.MessageHelper;
+import com.maddyhome.idea.vim.helper.Msg;
+import gnu.trove.TIntIntHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 public class DigraphGroup {
-  public DigraphGroup() {
-    loadDigraphs();
-  }
-
   public char getDigraph(char ch1, char ch2) {
-    String key = new String(new char[]{ch1, ch2});
-    Character ch = digraphs.get(key);
-    if (ch == null) {
-      key = new String(new char[]{ch2, ch1});
-      ch = digraphs.get(key);
+    final TIntIntHashMap digraphs = getDigraphs();
+    int ch = digraphs.get(getKey(ch1, ch2));
+    if (ch == 0) {
+      ch = digraphs.get(getKey(ch2, ch1));
     }
 
-    if (ch == null) {
+    if (ch == 0) {
       return ch2;
     }
     else {
-      return ch;
+      return (char)ch;
     }
   }
 
   public boolean parseCommandLine(@NotNull Editor editor, @NotNull String args) {
-    if (args.length() == 0) {
+    if (args.trim().length() == 0) {
       showDigraphs(editor);
 
       return true;
     }
 
+    return parseDigraphs(args);
+  }
+
+  /**
+   * Adds user-defined digraphs given as {char1}{char2} {number} pairs, see :help :digraphs
+   */
+  private boolean parseDigraphs(@NotNull String args) {
+    final int len = args.length();
+    int pos = skipWhitespace(args, 0);
+    while (pos < len) {
+      if (pos + 1 >= len || Character.isWhitespace(args.charAt(pos + 1))) {
+        VimPlugin.showMessage(MessageHelper.message(Msg.e_invarg, args.substring(pos)));
+        return false;
+      }
+      final char ch1 = args.charAt(pos);
+      final char ch2 = args.charAt(pos + 1);
+      if (ch1 == '\u001B' || ch2 == '\u001B') {
+        VimPlugin.showMessage(MessageHelper.message(Msg.E104));
+        return false;
+      }
+
+      pos = skipWhitespace(args, pos + 2);
+      int code = 0;
+      final int numberStart = pos;
+      while (pos < len && Character.isDigit(args.charAt(pos)) && code <= Character.MAX_VALUE) {
+        code = code * 10 + Character.digit(args.charAt(pos), 10);
+        pos++;
+      }
+      if (pos == numberStart) {
+        VimPlugin.showMessage(MessageHelper.message(Msg.E39));
+        return false;
+      }
+      if (code == 0 || code > Character.MAX_VALUE) {
+        VimPlugin.showMessage(MessageHelper.message(Msg.e_invarg, args.substring(numberStart, pos)));
+        return false;
+      }
+
+      getDigraphs().put(getKey(ch1, ch2), code);
+      pos = skipWhitespace(args, pos);
+    }
+
     return true;
   }
 
+  private static int skipWhitespace(@NotNull String text, int pos) {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+
   private void showDigraphs(@NotNull Editor editor) {
     int width = EditorHelper.getScreenWidth(editor);
     if (width < 10) {
       width = 80;
     }
     int colCount = width / 12;
-    int height = (int)Math.ceil((double)digraphs.size() / (double)colCount);
+
+    // Every entry packs the character above its two key characters, so sorting orders them by character
+    final TIntIntHashMap digraphs = getDigraphs();
+    final long[] entries = new long[digraphs.size()];
+    final int[] keys = digraphs.keys();
+    for (int i = 0; i < keys.length; i++) {
+      entries[i] = ((long)digraphs.get(keys[i]) << 32) | (keys[i] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(entries);
+    int height = (int)Math.ceil((double)entries.length / (double)colCount);
 
     if (logger.isDebugEnabled()) {
       logger.debug("width=" + width);
@@ -74,10 +130,12 @@ public class DigraphGroup {
 
     StringBuilder res = new StringBuilder();
     int cnt = 0;
-    for (Character code : keys.keySet()) {
-      String key = keys.get(code);
+    for (long entry : entries) {
+      final char code = (char)(entry >>> 32);
+      final int key = (int)entry;
 
-      res.append(key);
+      res.append((char)(key >>> 16));
+      res.append((char)(key & 0xFFFF));
       res.append(' ');
       if (code < 32) {
         res.append('^');
@@ -114,21 +172,33 @@ public class DigraphGroup {
     ExOutputModel.getInstance(editor).output(res.toString());
   }
 
-  private void loadDigraphs() {
+  private static int getKey(char ch1, char ch2) {
+    return (ch1 << 16) | ch2;
+  }
+
+  /**
+   * The digraph table is only built the first time a digraph is entered or listed
+   */
+  @NotNull
+  private TIntIntHashMap getDigraphs() {
+    if (digraphs == null) {
+      digraphs = loadDigraphs();
+    }
+    return digraphs;
+  }
+
+  @NotNull
+  private static TIntIntHashMap loadDigraphs() {
+    final TIntIntHashMap res = new TIntIntHashMap(defaultDigraphs.length / 3);
     for (int i = 0; i < defaultDigraphs.length; i += 3) {
       if (defaultDigraphs[i] != '\0' && defaultDigraphs[i + 1] != '\0') {
-        char ch = defaultDigraphs[i + 2];
-        String key = new String(new char[]{defaultDigraphs[i], defaultDigraphs[i + 1]});
-        digraphs.put(key, ch);
-        keys.put(ch, key);
+        res.put(getKey(defaultDigraphs[i], defaultDigraphs[i + 1]), defaultDigraphs[i + 2]);
       }
     }
-
-    // TODO - load custom digraphs from .ideavimrc
+    return res;
   }
 
-  @NotNull private final HashMap<String, Character> digraphs = new HashMap<String, Character>(defaultDigraphs.length);
-  @NotNull private final TreeMap<Character, String> keys = new TreeMap<Character, String>();
+  @Nullable private TIntIntHashMap digraphs;
 
   private static final char defaultDigraphs[] = {
     /*
@@ -59,12 +59,10 @@ public class EditorGroup {
   private final CaretListener myLineNumbersCaretListener = new CaretAdapter() {
     @Override
     public void caretPositionChanged(CaretEvent e) {
-      updateLineNumbers(e.getEditor());
+      updateRelativeLineNumbers(e.getEditor());
     }
   };
 
-  private final LineNumbersGutterProvider myLineNumbersGutterProvider = new LineNumbersGutterProvider();
-
   public EditorGroup() {
     final Options options = Options.getInstance();
     final OptionChangeListener numbersChangeListener = new OptionChangeListener() {
@@ -180,12 +178,54 @@ public class EditorGroup {
     }
 
     if (relativeLineNumber) {
-      final EditorGutter gutter = editor.getGutter();
-      gutter.closeAllAnnotations();
-      gutter.registerTextAnnotation(myLineNumbersGutterProvider);
+      editor.getGutter().closeAllAnnotations();
+      registerRelativeLineNumbers(editor);
     }
   }
 
+  private static void registerRelativeLineNumbers(@NotNull Editor editor) {
+    final LineNumbersGutterProvider provider = new LineNumbersGutterProvider(editor);
+    editor.getGutter().registerTextAnnotation(provider);
+    EditorData.setRelativeNumbersProvider(editor, provider);
+    EditorData.setRelativeNumbersLine(editor, editor.getCaretModel().getLogicalPosition().line);
+  }
+
+  /**
+   * Repaints the relative line numbers after a caret move.
+   * <p>
+   * The annotation stays registered, only the visible part of the gutter is repainted. Nothing is done while the
+   * caret stays on the same line, and all the moves made before the next repaint, e.g. by a repeated j, are
+   * coalesced into a single one. If the annotation was closed by the IDE, e.g. together with the VCS annotations,
+   * it is registered again.
+   */
+  private void updateRelativeLineNumbers(@NotNull Editor editor) {
+    if (!EditorData.isFileEditor(editor) || !Options.getInstance().isSet(Options.RELATIVE_NUMBER)) {
+      return;
+    }
+    if (EditorData.getRelativeNumbersProvider(editor) == null) {
+      registerRelativeLineNumbers(editor);
+      return;
+    }
+
+    final int line = editor.getCaretModel().getLogicalPosition().line;
+    if (line == EditorData.getRelativeNumbersLine(editor)) {
+      return;
+    }
+    EditorData.setRelativeNumbersLine(editor, line);
+
+    if (EditorData.isRelativeNumbersRepaintPending(editor)) {
+      return;
+    }
+    EditorData.setRelativeNumbersRepaintPending(editor, true);
+    ApplicationManager.getApplication().invokeLater(() -> {
+      EditorData.setRelativeNumbersRepaintPending(editor, false);
+      if (editor.isDisposed()) return;
+      final JComponent gutter = ((EditorEx)editor).getGutterComponentEx();
+      final Rectangle area = editor.getScrollingModel().getVisibleArea();
+      gutter.repaint(0, area.y, gutter.getWidth(), area.height);
+    });
+  }
+
   private void setCursors(boolean isBlock) {
     Editor[] editors = EditorFactory.getInstance().getAllEditors();
     for (Editor editor : editors) {
@@ -242,6 +282,15 @@ public class EditorGroup {
   }
 
   private static class LineNumbersGutterProvider implements TextAnnotationGutterProvider {
+    @NotNull private final Editor myEditor;
+    // The logical lines on the screen, computed once for all the lines the gutter asks for in one paint
+    private int myFirstVisibleLine = -1;
+    private int myLastVisibleLine = -1;
+
+    LineNumbersGutterProvider(@NotNull Editor editor) {
+      myEditor = editor;
+    }
+
     @Nullable
     @Override
     public String getLineText(int line, @NotNull Editor editor) {
@@ -249,16 +298,30 @@ public class EditorGroup {
         final Options options = Options.getInstance();
         final boolean relativeLineNumber = options.isSet(Options.RELATIVE_NUMBER);
         final boolean lineNumber = options.isSet(Options.NUMBER);
+        if (relativeLineNumber && !isVisibleLine(line, editor)) {
+          // Only the lines on the screen are painted, the others just need a label of the right width
+          return lineNumberToString("", editor);
+        }
         if (relativeLineNumber && lineNumber && isCaretLine(line, editor)) {
-          return lineNumberToString(getLineNumber(line), editor);
+          return lineNumberToString(Integer.toString(getLineNumber(line)), editor);
         }
         else if (relativeLineNumber) {
-          return lineNumberToString(getRelativeLineNumber(line, editor), editor);
+          return lineNumberToString(Integer.toString(getRelativeLineNumber(line, editor)), editor);
         }
       }
       return null;
     }
 
+    private boolean isVisibleLine(int line, @NotNull Editor editor) {
+      if (myFirstVisibleLine < 0) {
+        final Rectangle area = editor.getScrollingModel().getVisibleArea();
+        myFirstVisibleLine = editor.xyToLogicalPosition(new Point(0, area.y)).line;
+        myLastVisibleLine = editor.xyToLogicalPosition(new Point(0, area.y + area.height)).line;
+        ApplicationManager.getApplication().invokeLater(() -> myFirstVisibleLine = -1);
+      }
+      return line >= myFirstVisibleLine && line <= myLastVisibleLine;
+    }
+
     private boolean isCaretLine(int line, @NotNull Editor editor) {
       return line == editor.getCaretModel().getLogicalPosition().line;
     }
@@ -274,10 +337,10 @@ public class EditorGroup {
       return Math.abs(currentVisualLine - visualLine);
     }
 
-    private String lineNumberToString(int lineNumber, @NotNull Editor editor) {
+    private String lineNumberToString(@NotNull String lineNumber, @NotNull Editor editor) {
       final int lineCount = editor.getDocument().getLineCount();
       final int digitsCount = (int)Math.ceil(Math.log10(lineCount));
-      return StringHelper.leftJustify("" + lineNumber, digitsCount, ' ');
+      return StringHelper.leftJustify(lineNumber, digitsCount, ' ');
     }
 
     @Nullable
@@ -310,6 +373,9 @@ public class EditorGroup {
 
     @Override
     public void gutterClosed() {
+      if (EditorData.getRelativeNumbersProvider(myEditor) == this) {
+        EditorData.setRelativeNumbersProvider(myEditor, null);
+      }
     }
   }
 }
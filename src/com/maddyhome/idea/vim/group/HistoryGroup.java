@@ -19,9 +19,11 @@
 package com.maddyhome.idea.vim.group;
 
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.maddyhome.idea.vim.helper.StringHelper;
-import com.maddyhome.idea.vim.option.NumberOption;
-import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.NumberOptionHandle;
+import com.maddyhome.idea.vim.option.ViminfoOption;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 
@@ -43,6 +45,7 @@ public class HistoryGroup {
 
     HistoryBlock block = blocks(key);
     block.addEntry(text);
+    stateTracker.incModificationCount();
   }
 
   @NotNull
@@ -92,11 +95,20 @@ public class HistoryGroup {
     if (block == null) {
       block = new HistoryBlock();
       histories.put(key, block);
+      stateTracker.incModificationCount();
     }
 
     return block;
   }
 
+  /**
+   * Tracks changes of the history that is saved by {@link #saveData(Element)}
+   */
+  @NotNull
+  public ModificationTracker getStateTracker() {
+    return stateTracker;
+  }
+
   public void saveData(@NotNull Element element) {
     logger.debug("saveData");
     Element hist = new Element("history");
@@ -117,7 +129,9 @@ public class HistoryGroup {
 
     final Element root = new Element("history-" + key);
 
-    for (HistoryEntry entry : block.getEntries()) {
+    final List<HistoryEntry> entries = block.getEntries();
+    final int max = Math.max(getSaveMaxLength(key), 0);
+    for (HistoryEntry entry : entries.subList(Math.max(entries.size() - max, 0), entries.size())) {
       final Element entryElement = new Element("entry");
       StringHelper.setSafeXmlText(entryElement, entry.getEntry());
       root.addContent(entryElement);
@@ -161,10 +175,24 @@ public class HistoryGroup {
     }
   }
 
-  private static int maxLength() {
-    NumberOption opt = (NumberOption)Options.getInstance().getOption("history");
+  /**
+   * Gets the number of saved history entries from the :, / and @ items of 'viminfo'
+   */
+  private static int getSaveMaxLength(String key) {
+    switch (key) {
+      case SEARCH:
+        return ViminfoOption.getItem('/', maxLength());
+      case COMMAND:
+        return ViminfoOption.getItem(':', maxLength());
+      case INPUT:
+        return ViminfoOption.getItem('@', maxLength());
+      default:
+        return maxLength();
+    }
+  }
 
-    return opt.value();
+  private static int maxLength() {
+    return HISTORY.value();
   }
 
   private static class HistoryBlock {
@@ -213,6 +241,9 @@ public class HistoryGroup {
   }
 
   @NotNull private final Map<String, HistoryBlock> histories = new HashMap<>();
+  @NotNull private final SimpleModificationTracker stateTracker = new SimpleModificationTracker();
+
+  private static final NumberOptionHandle HISTORY = new NumberOptionHandle("history");
 
   private static final Logger logger = Logger.getInstance(HistoryGroup.class.getName());
 }
@@ -35,6 +35,7 @@ import com.maddyhome.idea.vim.command.Argument;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.MappingMode;
 import com.maddyhome.idea.vim.ex.ExOutputModel;
+import com.maddyhome.idea.vim.ex.ExOutputRows;
 import com.maddyhome.idea.vim.extension.VimExtensionHandler;
 import com.maddyhome.idea.vim.helper.StringHelper;
 import com.maddyhome.idea.vim.key.*;
@@ -64,6 +65,7 @@ public class KeyGroup {
   @NotNull private final Map<KeyStroke, ShortcutOwner> shortcutConflicts = new LinkedHashMap<>();
   @NotNull private final Set<KeyStroke> requiredShortcutKeys = new HashSet<>();
   @NotNull private final HashMap<MappingMode, RootNode> keyRoots = new HashMap<>();
+  @NotNull private final Map<MappingMode, List<ActionBinding>> pendingBindings = new EnumMap<>(MappingMode.class);
   @NotNull private final Map<MappingMode, KeyMapping> keyMappings = new HashMap<>();
   @Nullable private OperatorFunction operatorFunction = null;
 
@@ -79,8 +81,9 @@ public class KeyGroup {
 
   public boolean showKeyMappings(@NotNull Set<MappingMode> modes, @NotNull Editor editor) {
     final List<MappingInfo> rows = getKeyMappingRows(modes);
-    final StringBuilder builder = new StringBuilder();
-    for (MappingInfo row : rows) {
+    final ExOutputRows output = new ExOutputRows().add(rows.size(), index -> {
+      final MappingInfo row = rows.get(index);
+      final StringBuilder builder = new StringBuilder();
       builder.append(leftJustify(getModesStringCode(row.getMappingModes()), 2, ' '));
       builder.append(" ");
       builder.append(leftJustify(toKeyNotation(row.getFromKeys()), 11, ' '));
@@ -99,9 +102,9 @@ public class KeyGroup {
       else {
         builder.append("<Unknown>");
       }
-      builder.append("\n");
-    }
-    ExOutputModel.getInstance(editor).output(builder.toString());
+      return builder.toString();
+    });
+    ExOutputModel.getInstance(editor).output(output);
     return true;
   }
 
@@ -241,6 +244,14 @@ public class KeyGroup {
     if (res == null) {
       res = new RootNode();
       keyRoots.put(mappingMode, res);
+
+      // The tree of a mode is built the first time the mode is used
+      final List<ActionBinding> bindings = pendingBindings.remove(mappingMode);
+      if (bindings != null) {
+        for (ActionBinding binding : bindings) {
+          addBinding(res, binding);
+        }
+      }
     }
 
     return res;
@@ -346,15 +357,27 @@ public class KeyGroup {
   @Deprecated
   private void registerAction(@NotNull Set<MappingMode> mappingModes, @NotNull String actName, @NotNull Command.Type cmdType, int cmdFlags, @NotNull KeyStroke[] keys,
                               @NotNull Argument.Type argType) {
+    final ActionBinding binding = new ActionBinding(actName, cmdType, cmdFlags, keys, argType);
     for (MappingMode mappingMode : mappingModes) {
-      Node node = getKeyRoot(mappingMode);
-      final int len = keys.length;
-      // Add a child for each keystroke in the shortcut for this action
-      for (int i = 0; i < len; i++) {
-        if (node instanceof ParentNode) {
-          final ParentNode base = (ParentNode)node;
-          node = addNode(base, actName, cmdType, cmdFlags, keys[i], argType, i == len - 1);
-        }
+      final RootNode root = keyRoots.get(mappingMode);
+      if (root != null) {
+        addBinding(root, binding);
+      }
+      else {
+        pendingBindings.computeIfAbsent(mappingMode, mode -> new ArrayList<>()).add(binding);
+      }
+    }
+  }
+
+  private void addBinding(@NotNull RootNode root, @NotNull ActionBinding binding) {
+    Node node = root;
+    final int len = binding.keys.length;
+    // Add a child for each keystroke in the shortcut for this action
+    for (int i = 0; i < len; i++) {
+      if (node instanceof ParentNode) {
+        final ParentNode base = (ParentNode)node;
+        node = addNode(base, binding.actName, binding.cmdType, binding.cmdFlags, binding.keys[i], binding.argType,
+                       i == len - 1);
       }
     }
   }
@@ -495,4 +518,24 @@ public class KeyGroup {
     }
     return results;
   }
+
+  /**
+   * An action registered for a key sequence that hasn't been added to the key tree of a mode yet
+   */
+  private static class ActionBinding {
+    @NotNull private final String actName;
+    @NotNull private final Command.Type cmdType;
+    private final int cmdFlags;
+    @NotNull private final KeyStroke[] keys;
+    @NotNull private final Argument.Type argType;
+
+    ActionBinding(@NotNull String actName, @NotNull Command.Type cmdType, int cmdFlags, @NotNull KeyStroke[] keys,
+                  @NotNull Argument.Type argType) {
+      this.actName = actName;
+      this.cmdType = cmdType;
+      this.cmdFlags = cmdFlags;
+      this.keys = keys;
+      this.argType = argType;
+    }
+  }
 }
@@ -26,6 +26,9 @@ import com.intellij.openapi.editor.EditorFactory;
 import com.intellij.openapi.editor.LogicalPosition;
 import com.intellij.openapi.editor.event.*;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
@@ -39,6 +42,7 @@ import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.helper.EditorData;
 import com.maddyhome.idea.vim.helper.EditorHelper;
 import com.maddyhome.idea.vim.helper.SearchHelper;
+import com.maddyhome.idea.vim.option.ViminfoOption;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -203,7 +207,7 @@ public class MarkGroup {
     Mark mark = new Mark(ch, lp.line, lp.column, vf.getPath(), extractProtocol(vf));
     // File specific marks get added to the file
     if (FILE_MARKS.indexOf(ch) >= 0) {
-      HashMap<Character, Mark> fmarks = getFileMarks(editor.getDocument());
+      HashMap<Character, Mark> fmarks = updateFileMarks(editor.getDocument());
       if (fmarks == null) {
         return false;
       }
@@ -211,7 +215,7 @@ public class MarkGroup {
     }
     // Global marks get set to both the file and the global list of marks
     else if (GLOBAL_MARKS.indexOf(ch) >= 0) {
-      HashMap<Character, Mark> fmarks = getFileMarks(editor.getDocument());
+      HashMap<Character, Mark> fmarks = updateFileMarks(editor.getDocument());
       if (fmarks == null) {
         return false;
       }
@@ -221,6 +225,7 @@ public class MarkGroup {
         oldMark.clear();
       }
     }
+    stateTracker.incModificationCount();
 
     return true;
   }
@@ -272,18 +277,7 @@ public class MarkGroup {
     }
 
     LogicalPosition lp = editor.offsetToLogicalPosition(offset);
-    Jump jump = new Jump(lp.line, lp.column, vf.getPath());
-    final String filename = jump.getFilename();
-
-    for (int i = 0; i < jumps.size(); i++) {
-      Jump j = jumps.get(i);
-      if (filename != null && filename.equals(j.getFilename()) && j.getLogicalLine() == jump.getLogicalLine()) {
-        jumps.remove(i);
-        break;
-      }
-    }
-
-    jumps.add(jump);
+    jumps.add(new Jump(lp.line, lp.column, vf.getPath()));
 
     if (reset) {
       jumpSpot = -1;
@@ -291,22 +285,28 @@ public class MarkGroup {
     else {
       jumpSpot++;
     }
+    stateTracker.incModificationCount();
+  }
 
-    if (jumps.size() > SAVE_JUMP_COUNT) {
-      jumps.remove(0);
-    }
+  @NotNull
+  private static Object getJumpKey(@NotNull Jump jump) {
+    final String filename = jump.getFilename();
+    return filename != null ? Pair.create(filename, jump.getLogicalLine()) : jump;
   }
 
   private void removeMark(char ch, @NotNull Mark mark) {
     if (FILE_MARKS.indexOf(ch) >= 0) {
       HashMap fmarks = getFileMarks(mark.getFilename());
-      fmarks.remove(ch);
+      if (fmarks != null) {
+        fmarks.remove(ch);
+      }
     }
     else if (GLOBAL_MARKS.indexOf(ch) >= 0) {
       globalMarks.remove(ch);
     }
 
     mark.clear();
+    stateTracker.incModificationCount();
   }
 
   @NotNull
@@ -328,7 +328,7 @@ public class MarkGroup {
 
   @NotNull
   public List<Jump> getJumps() {
-    return jumps;
+    return jumps.toList();
   }
 
   public int getJumpSpot() {
@@ -352,6 +352,19 @@ public class MarkGroup {
     return getFileMarks(vf.getPath());
   }
 
+  /**
+   * Gets the map of marks for the specified file in order to change it, see {@link #updateFileMarks(String)}
+   */
+  @Nullable
+  private FileMarks<Character, Mark> updateFileMarks(@NotNull final Document doc) {
+    VirtualFile vf = FileDocumentManager.getInstance().getFile(doc);
+    if (vf == null) {
+      return null;
+    }
+
+    return updateFileMarks(vf.getPath());
+  }
+
   @Nullable
   private HashMap<Character, Mark> getAllFileMarks(@NotNull final Document doc) {
     VirtualFile vf = FileDocumentManager.getInstance().getFile(doc);
@@ -379,23 +392,45 @@ public class MarkGroup {
    * Gets the map of marks for the specified file
    *
    * @param filename The file to get the marks for
+   * @return The map of marks or null if no marks were set in the file. The keys are <code>Character</code>s of the
+   *         mark names, the values are <code>Mark</code>s.
+   */
+  @Nullable
+  private FileMarks<Character, Mark> getFileMarks(String filename) {
+    return fileMarks.get(filename);
+  }
+
+  /**
+   * Gets the map of marks for the specified file in order to change it. The map is created if needed and the file
+   * becomes the most recently used one.
+   *
+   * @param filename The file to get the marks for
    * @return The map of marks. The keys are <code>Character</code>s of the mark names, the values are
    *         <code>Mark</code>s.
    */
-  private FileMarks<Character, Mark> getFileMarks(String filename) {
-    FileMarks<Character, Mark> marks = fileMarks.get(filename);
+  @NotNull
+  private FileMarks<Character, Mark> updateFileMarks(String filename) {
+    FileMarks<Character, Mark> marks = fileMarks.remove(filename);
     if (marks == null) {
       marks = new FileMarks<>();
-      fileMarks.put(filename, marks);
     }
+    fileMarks.put(filename, marks);
 
     return marks;
   }
 
+  /**
+   * Tracks changes of the marks and jumps that are saved by {@link #saveData(Element)}
+   */
+  @NotNull
+  public ModificationTracker getStateTracker() {
+    return stateTracker;
+  }
+
   public void saveData(@NotNull Element element) {
     Element marksElem = new Element("globalmarks");
     for (Mark mark : globalMarks.values()) {
-      if (!mark.isClear()) {
+      if (!mark.isClear() && isSaveGlobalMarks()) {
         Element markElem = new Element("mark");
         markElem.setAttribute("key", Character.toString(mark.getKey()));
         markElem.setAttribute("line", Integer.toString(mark.getLogicalLine()));
@@ -412,20 +447,17 @@ public class MarkGroup {
 
     Element fileMarksElem = new Element("filemarks");
 
-    List<FileMarks<Character, Mark>> files = new ArrayList<>(fileMarks.values());
-    files.sort(Comparator.comparing(o -> o.timestamp));
-
-    if (files.size() > SAVE_MARK_COUNT) {
-      files = files.subList(files.size() - SAVE_MARK_COUNT, files.size());
-    }
-
-    for (String file : fileMarks.keySet()) {
-      FileMarks<Character, Mark> marks = fileMarks.get(file);
-      if (!files.contains(marks)) {
-        continue;
-      }
-
+    // The least recently used files come first, files without marks don't count towards the limit
+    int skipped = -getSaveMarkCount();
+    for (FileMarks<Character, Mark> marks : fileMarks.values()) {
       if (marks.size() > 0) {
+        skipped++;
+      }
+    }
+    for (Map.Entry<String, FileMarks<Character, Mark>> entry : fileMarks.entrySet()) {
+      final String file = entry.getKey();
+      final FileMarks<Character, Mark> marks = entry.getValue();
+      if (marks.size() > 0 && skipped-- <= 0) {
         Element fileMarkElem = new Element("file");
         fileMarkElem.setAttribute("name", file);
         fileMarkElem.setAttribute("timestamp", Long.toString(marks.timestamp.getTime()));
@@ -445,7 +477,8 @@ public class MarkGroup {
     element.addContent(fileMarksElem);
 
     Element jumpsElem = new Element("jumps");
-    for (Jump jump : jumps) {
+    for (int i = 0; i < jumps.size(); i++) {
+      final Jump jump = jumps.get(i);
       if (!jump.isClear()) {
         Element jumpElem = new Element("jump");
         jumpElem.setAttribute("line", Integer.toString(jump.getLogicalLine()));
@@ -478,7 +511,7 @@ public class MarkGroup {
                              markElem.getAttributeValue("protocol"));
 
         globalMarks.put(mark.getKey(), mark);
-        HashMap<Character, Mark> fmarks = getFileMarks(mark.getFilename());
+        HashMap<Character, Mark> fmarks = updateFileMarks(mark.getFilename());
         fmarks.put(mark.getKey(), mark);
       }
     }
@@ -489,19 +522,18 @@ public class MarkGroup {
 
     Element fileMarksElem = element.getChild("filemarks");
     if (fileMarksElem != null) {
-      List fileList = fileMarksElem.getChildren("file");
-      for (Object aFileList : fileList) {
-        Element fileElem = (Element)aFileList;
+      //noinspection unchecked
+      final List<Element> fileList = new ArrayList<>((List<Element>)fileMarksElem.getChildren("file"));
+      // The least recently used files come first, like in fileMarks
+      fileList.sort(Comparator.comparingLong(MarkGroup::getTimestamp));
+      for (Element fileElem : fileList) {
         String filename = fileElem.getAttributeValue("name");
         Date timestamp = new Date();
-        try {
-          long date = Long.parseLong(fileElem.getAttributeValue("timestamp"));
+        final long date = getTimestamp(fileElem);
+        if (date >= 0) {
           timestamp.setTime(date);
         }
-        catch (NumberFormatException e) {
-          // ignore
-        }
-        FileMarks<Character, Mark> fmarks = getFileMarks(filename);
+        FileMarks<Character, Mark> fmarks = updateFileMarks(filename);
         List markList = fileElem.getChildren("mark");
         for (Object aMarkList : markList) {
           Element markElem = (Element)aMarkList;
@@ -540,6 +572,29 @@ public class MarkGroup {
     }
   }
 
+  private static long getTimestamp(@NotNull Element fileElem) {
+    try {
+      return Long.parseLong(fileElem.getAttributeValue("timestamp"));
+    }
+    catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Gets the maximum number of files with saved marks, the ' item of 'viminfo'
+   */
+  private static int getSaveMarkCount() {
+    return Math.max(ViminfoOption.getItem('\'', SAVE_MARK_COUNT), 0);
+  }
+
+  /**
+   * Checks the f item of 'viminfo', f0 means that global marks are not saved
+   */
+  private static boolean isSaveGlobalMarks() {
+    return ViminfoOption.getItem('f', 1) != 0;
+  }
+
   /**
    * This updates all the marks for a file whenever text is deleted from the file. If the line that contains a mark
    * is completely deleted then the mark is deleted too. If the deleted text is before the marked line, the mark is
@@ -549,8 +604,10 @@ public class MarkGroup {
    * @param marks       The editor's marks to update
    * @param delStartOff The offset within the editor where the deletion occurred
    * @param delLength   The length of the deleted text
+   * @return true if a mark was moved or removed
    */
-  public static void updateMarkFromDelete(@Nullable Editor editor, @Nullable HashMap<Character, Mark> marks, int delStartOff, int delLength) {
+  public static boolean updateMarkFromDelete(@Nullable Editor editor, @Nullable HashMap<Character, Mark> marks, int delStartOff, int delLength) {
+    boolean changed = false;
     // Skip all this work if there are no marks
     if (marks != null && marks.size() > 0 && editor != null) {
       // Calculate the logical position of the start and end of the deleted text
@@ -570,6 +627,7 @@ public class MarkGroup {
           int lines = delEnd.line - delStart.line;
           if (logger.isDebugEnabled()) logger.debug("Shifting mark by " + lines + " lines");
           mark.setLogicalLine(mark.getLogicalLine() - lines);
+          changed |= lines != 0;
         }
         // If the deleted text begins before the mark and ends after the mark then it may be shifted or deleted
         else if (delStart.line <= mark.getLogicalLine() && delEnd.line >= mark.getLogicalLine()) {
@@ -583,6 +641,7 @@ public class MarkGroup {
           // If the marked line is completely within the deleted text, remove the mark (except the special case)
           if (delStartOff <= markLineStartOff && delEndOff >= markLineEndOff && !changeFromMarkLineStart) {
             VimPlugin.getMark().removeMark(ch, mark);
+            changed = true;
             logger.debug("Removed mark");
           }
           // The deletion only covers part of the marked line so shift the mark only if the deletion begins
@@ -590,11 +649,13 @@ public class MarkGroup {
           else if (delStart.line < mark.getLogicalLine()) {
             // shift mark
             mark.setLogicalLine(delStart.line);
+            changed = true;
             if (logger.isDebugEnabled()) logger.debug("Shifting mark to line " + delStart.line);
           }
         }
       }
     }
+    return changed;
   }
 
   /**
@@ -605,25 +666,29 @@ public class MarkGroup {
    * @param marks       The editor's marks
    * @param insStartOff The insertion point
    * @param insLength   The length of the insertion
+   * @return true if a mark was moved
    */
-  public static void updateMarkFromInsert(@Nullable Editor editor, @Nullable HashMap<Character, Mark> marks, int insStartOff, int insLength) {
+  public static boolean updateMarkFromInsert(@Nullable Editor editor, @Nullable HashMap<Character, Mark> marks, int insStartOff, int insLength) {
+    boolean changed = false;
     if (marks != null && marks.size() > 0 && editor != null) {
       int insEndOff = insStartOff + insLength;
       LogicalPosition insStart = editor.offsetToLogicalPosition(insStartOff);
       LogicalPosition insEnd = editor.offsetToLogicalPosition(insEndOff);
       if (logger.isDebugEnabled()) logger.debug("mark insert. insStart = " + insStart + ", insEnd = " + insEnd);
       int lines = insEnd.line - insStart.line;
-      if (lines == 0) return;
+      if (lines == 0) return false;
 
       for (Mark mark : marks.values()) {
         if (logger.isDebugEnabled()) logger.debug("mark = " + mark);
         // Shift the mark if the insertion began on a line prior to the marked line.
         if (insStart.line < mark.getLogicalLine()) {
           mark.setLogicalLine(mark.getLogicalLine() + lines);
+          changed = true;
           if (logger.isDebugEnabled()) logger.debug("Shifting mark by " + lines + " lines");
         }
       }
     }
+    return changed;
   }
 
   private static class FileMarks<K, V> extends HashMap<K, V> {
@@ -662,8 +727,10 @@ public class MarkGroup {
       if (event.getOldLength() == 0) return;
 
       Document doc = event.getDocument();
-      updateMarkFromDelete(getAnEditor(doc), VimPlugin.getMark().getAllFileMarks(doc), event.getOffset(),
-                           event.getOldLength());
+      if (updateMarkFromDelete(getAnEditor(doc), VimPlugin.getMark().getAllFileMarks(doc), event.getOffset(),
+                               event.getOldLength())) {
+        VimPlugin.getMark().stateTracker.incModificationCount();
+      }
       // TODO - update jumps
     }
 
@@ -680,8 +747,10 @@ public class MarkGroup {
       if (event.getNewLength() == 0 || (event.getNewLength() == 1 && event.getNewFragment().charAt(0) != '\n')) return;
 
       Document doc = event.getDocument();
-      updateMarkFromInsert(getAnEditor(doc), VimPlugin.getMark().getAllFileMarks(doc), event.getOffset(),
-                           event.getNewLength());
+      if (updateMarkFromInsert(getAnEditor(doc), VimPlugin.getMark().getAllFileMarks(doc), event.getOffset(),
+                               event.getNewLength())) {
+        VimPlugin.getMark().stateTracker.incModificationCount();
+      }
       // TODO - update jumps
     }
 
@@ -698,10 +767,93 @@ public class MarkGroup {
     }
   }
 
-  @NotNull private final HashMap<String, FileMarks<Character, Mark>> fileMarks = new HashMap<>();
+  /**
+   * The jumps in the order they were added, kept in a ring of {@link #SAVE_JUMP_COUNT} jumps. Every jump has a
+   * sequence number, its position in the ring is the sequence number modulo the ring size. The sequence numbers of
+   * the jumps are indexed by their file and line.
+   */
+  private static class JumpList {
+    /**
+     * Appends the jump. An older jump to the same line of the same file is removed and the oldest jump is dropped
+     * once the list is full.
+     */
+    void add(@NotNull Jump jump) {
+      final Object key = getJumpKey(jump);
+      final Integer sequence = sequences.get(key);
+      if (sequence != null) {
+        remove(sequence);
+      }
+      else if (size == jumps.length) {
+        sequences.remove(getJumpKey(get(0)));
+        jumps[first % jumps.length] = null;
+        first++;
+        size--;
+      }
+      final int last = first + size;
+      jumps[last % jumps.length] = jump;
+      sequences.put(key, last);
+      size++;
+    }
+
+    int size() {
+      return size;
+    }
+
+    /**
+     * @param index The index of the jump, the oldest jump has index 0
+     */
+    @NotNull
+    Jump get(int index) {
+      return jumps[(first + index) % jumps.length];
+    }
+
+    void clear() {
+      Arrays.fill(jumps, null);
+      sequences.clear();
+      first = 0;
+      size = 0;
+    }
+
+    @NotNull
+    List<Jump> toList() {
+      final List<Jump> res = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        res.add(get(i));
+      }
+      return res;
+    }
+
+    /**
+     * Removes the jump with the sequence number and moves the newer jumps back by one
+     */
+    private void remove(int sequence) {
+      final int last = first + size - 1;
+      for (int i = sequence; i < last; i++) {
+        final Jump next = jumps[(i + 1) % jumps.length];
+        jumps[i % jumps.length] = next;
+        sequences.put(getJumpKey(next), i);
+      }
+      jumps[last % jumps.length] = null;
+      size--;
+    }
+
+    @Override
+    public String toString() {
+      return toList().toString();
+    }
+
+    @NotNull private final Jump[] jumps = new Jump[SAVE_JUMP_COUNT];
+    @NotNull private final HashMap<Object, Integer> sequences = new HashMap<>();
+    private int first;
+    private int size;
+  }
+
+  // The most recently changed files come last
+  @NotNull private final LinkedHashMap<String, FileMarks<Character, Mark>> fileMarks = new LinkedHashMap<>();
   @NotNull private final HashMap<Character, Mark> globalMarks = new HashMap<>();
-  @NotNull private final List<Jump> jumps = new ArrayList<>();
+  @NotNull private final JumpList jumps = new JumpList();
   private int jumpSpot = -1;
+  @NotNull private final SimpleModificationTracker stateTracker = new SimpleModificationTracker();
 
   private static final int SAVE_MARK_COUNT = 20;
   private static final int SAVE_JUMP_COUNT = 100;
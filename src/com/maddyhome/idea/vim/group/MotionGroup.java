@@ -48,15 +48,17 @@ import com.maddyhome.idea.vim.helper.CaretData;
 import com.maddyhome.idea.vim.helper.EditorData;
 import com.maddyhome.idea.vim.helper.EditorHelper;
 import com.maddyhome.idea.vim.helper.SearchHelper;
-import com.maddyhome.idea.vim.option.BoundStringOption;
-import com.maddyhome.idea.vim.option.NumberOption;
-import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.helper.VisualBlockSelection;
+import com.maddyhome.idea.vim.option.NumberOptionHandle;
+import com.maddyhome.idea.vim.option.TextOptionHandle;
 import com.maddyhome.idea.vim.ui.ExEntryPanel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This handles all motion related commands and marks
@@ -791,7 +793,7 @@ public class MotionGroup {
   }
 
   private void scrollColumnToScreenColumn(@NotNull Editor editor, int column) {
-    int scrollOffset = ((NumberOption) Options.getInstance().getOption("sidescrolloff")).value();
+    int scrollOffset = SIDE_SCROLL_OFF.value();
     int width = EditorHelper.getScreenWidth(editor);
     if (scrollOffset > width / 2) {
       scrollOffset = width / 2;
@@ -814,7 +816,7 @@ public class MotionGroup {
   }
 
   private void scrollLineToScreenLine(@NotNull Editor editor, int line, int rawCount, int count, boolean start) {
-    int scrollOffset = ((NumberOption) Options.getInstance().getOption("scrolloff")).value();
+    int scrollOffset = SCROLL_OFF.value();
     int height = EditorHelper.getScreenHeight(editor);
     if (scrollOffset > height / 2) {
       scrollOffset = height / 2;
@@ -863,7 +865,7 @@ public class MotionGroup {
 
   private int moveCaretToScreenLine(@NotNull Editor editor, int line) {
     //saveJumpLocation(editor, context);
-    int scrollOffset = ((NumberOption) Options.getInstance().getOption("scrolloff")).value();
+    int scrollOffset = SCROLL_OFF.value();
     int height = EditorHelper.getScreenHeight(editor);
     if (scrollOffset > height / 2) {
       scrollOffset = height / 2;
@@ -882,10 +884,9 @@ public class MotionGroup {
   }
 
   public boolean scrollHalfPage(@NotNull Editor editor, int dir, int count) {
-    NumberOption scroll = (NumberOption) Options.getInstance().getOption("scroll");
     int height = EditorHelper.getScreenHeight(editor) / 2;
     if (count == 0) {
-      count = scroll.value();
+      count = SCROLL.value();
       if (count == 0) {
         count = height;
       }
@@ -921,8 +922,8 @@ public class MotionGroup {
   }
 
   private static void moveCaretToView(@NotNull Editor editor) {
-    int scrollOffset = ((NumberOption) Options.getInstance().getOption("scrolloff")).value();
-    int sideScrollOffset = ((NumberOption) Options.getInstance().getOption("sidescrolloff")).value();
+    int scrollOffset = SCROLL_OFF.value();
+    int sideScrollOffset = SIDE_SCROLL_OFF.value();
     int height = EditorHelper.getScreenHeight(editor);
     int width = EditorHelper.getScreenWidth(editor);
     if (scrollOffset > height / 2) {
@@ -1330,10 +1331,10 @@ public class MotionGroup {
     final int line = position.line;
     final int column = position.column;
     final int topLine = EditorHelper.getVisualLineAtTopOfScreen(editor);
-    int scrollOffset = ((NumberOption) Options.getInstance().getOption("scrolloff")).value();
+    int scrollOffset = SCROLL_OFF.value();
     int scrollJumpSize = 0;
     if (scrollJump) {
-      scrollJumpSize = Math.max(0, ((NumberOption) Options.getInstance().getOption("scrolljump")).value() - 1);
+      scrollJumpSize = Math.max(0, SCROLL_JUMP.value() - 1);
     }
 
     int height = EditorHelper.getScreenHeight(editor);
@@ -1379,10 +1380,10 @@ public class MotionGroup {
     int visualColumn = EditorHelper.getVisualColumnAtLeftOfScreen(editor);
     int width = EditorHelper.getScreenWidth(editor);
     scrollJump = (CommandState.getInstance(editor).getFlags() & Command.FLAG_IGNORE_SIDE_SCROLL_JUMP) == 0;
-    scrollOffset = ((NumberOption) Options.getInstance().getOption("sidescrolloff")).value();
+    scrollOffset = SIDE_SCROLL_OFF.value();
     scrollJumpSize = 0;
     if (scrollJump) {
-      scrollJumpSize = Math.max(0, ((NumberOption) Options.getInstance().getOption("sidescroll")).value() - 1);
+      scrollJumpSize = Math.max(0, SIDE_SCROLL.value() - 1);
       if (scrollJumpSize == 0) {
         scrollJumpSize = width / 2;
       }
@@ -1519,9 +1520,8 @@ public class MotionGroup {
       CaretData.setVisualStart(caret, caret.getSelectionStart());
       int visualEnd = caret.getSelectionEnd();
       if (CommandState.getInstance(editor).getSubMode() == CommandState.SubMode.VISUAL_CHARACTER) {
-        BoundStringOption opt = (BoundStringOption) Options.getInstance().getOption("selection");
         int adj = 1;
-        if (opt.getValue().equals("exclusive")) {
+        if (SELECTION.is("exclusive")) {
           adj = 0;
         }
         visualEnd -= adj;
@@ -1722,30 +1722,61 @@ public class MotionGroup {
     int start = EditorData.getVisualBlockStart(editor);
     int end = EditorData.getVisualBlockEnd(editor);
 
-    LogicalPosition blockStart = editor.offsetToLogicalPosition(start);
-    LogicalPosition blockEnd = editor.offsetToLogicalPosition(end);
-    if (blockStart.column < blockEnd.column) {
-      blockEnd = new LogicalPosition(blockEnd.line, blockEnd.column + 1);
-    }
-    else {
-      blockStart = new LogicalPosition(blockStart.line, blockStart.column + 1);
+    final CaretModel caretModel = editor.getCaretModel();
+    final boolean toLineEnd = CaretData.getLastColumn(caretModel.getPrimaryCaret()) >= MotionGroup.LAST_COLUMN;
+    final VisualBlockSelection block = new VisualBlockSelection(editor, start, end, toLineEnd);
+    final VisualBlockSelection previous = EditorData.getVisualBlockSelection(editor);
+    if (!updateBlockSelectionCorner(editor, previous, block)) {
+      // Build the carets of all the lines in a single batch, from the start line to the moving corner so that the
+      // caret of the corner line ends up as the primary one
+      final List<CaretState> states = new ArrayList<>(block.getLineCount());
+      for (int line = block.getStartLine(); ; line += block.getDirection()) {
+        states.add(block.getCaretState(editor, line));
+        if (line == block.getEndLine()) {
+          break;
+        }
+      }
+      caretModel.setCaretsAndSelections(states);
     }
-    editor.getSelectionModel().setBlockSelection(blockStart, blockEnd);
+    caretModel.getPrimaryCaret().moveToOffset(end);
+    EditorData.setVisualBlockSelection(editor, block);
 
-    for (Caret caret : editor.getCaretModel().getAllCarets()) {
-      int line = caret.getLogicalPosition().line;
-      int lineEndOffset = EditorHelper.getLineEndOffset(editor, line, true);
+    VimPlugin.getMark().setVisualSelectionMarks(editor, new TextRange(start, end));
+  }
+
+  /**
+   * Updates the carets of the previous block for a block that has one more or one less line at the moving corner,
+   * e.g. after j or k, without touching the carets of the other lines.
+   *
+   * @return False if the block doesn't differ from the shown one in a single line and has to be built from scratch
+   */
+  private static boolean updateBlockSelectionCorner(@NotNull Editor editor, @Nullable VisualBlockSelection previous,
+                                                    @NotNull VisualBlockSelection block) {
+    final CaretModel caretModel = editor.getCaretModel();
+    if (!block.hasSameColumns(previous) || Math.abs(block.getEndLine() - previous.getEndLine()) != 1 ||
+        caretModel.getCaretCount() != previous.getLineCount() ||
+        caretModel.getPrimaryCaret().getLogicalPosition().line != previous.getEndLine()) {
+      return false;
+    }
 
-      if (CaretData.getLastColumn(editor.getCaretModel().getPrimaryCaret()) >= MotionGroup.LAST_COLUMN) {
-        caret.setSelection(caret.getSelectionStart(), lineEndOffset);
+    if (block.getLineCount() > previous.getLineCount()) {
+      final CaretState state = block.getCaretState(editor, block.getEndLine());
+      final LogicalPosition position = state.getCaretPosition();
+      final LogicalPosition selectionStart = state.getSelectionStart();
+      final LogicalPosition selectionEnd = state.getSelectionEnd();
+      if (position == null || selectionStart == null || selectionEnd == null) {
+        return false;
       }
-      if (!EditorHelper.isLineEmpty(editor, line, false)) {
-        caret.moveToOffset(caret.getSelectionEnd() - 1);
+      final Caret caret = caretModel.addCaret(editor.logicalToVisualPosition(position), true);
+      if (caret == null) {
+        return false;
       }
+      caret.setSelection(editor.logicalPositionToOffset(selectionStart), editor.logicalPositionToOffset(selectionEnd));
     }
-    editor.getCaretModel().getPrimaryCaret().moveToOffset(end);
-
-    VimPlugin.getMark().setVisualSelectionMarks(editor, new TextRange(start, end));
+    else {
+      caretModel.removeCaret(caretModel.getPrimaryCaret());
+    }
+    return caretModel.getPrimaryCaret().getLogicalPosition().line == block.getEndLine();
   }
 
   public void updateSelection(@NotNull Editor editor, @NotNull Caret caret, int offset) {
@@ -1765,9 +1796,8 @@ public class MotionGroup {
           start = end;
           end = t;
         }
-        final BoundStringOption opt = (BoundStringOption) Options.getInstance().getOption("selection");
         int lineEnd = EditorHelper.getLineEndForOffset(editor, end);
-        final int adj = opt.getValue().equals("exclusive") || end == lineEnd ? 0 : 1;
+        final int adj = SELECTION.is("exclusive") || end == lineEnd ? 0 : 1;
         final int adjEnd = Math.min(EditorHelper.getFileSize(editor), end + adj);
         caret.setSelection(start, adjEnd);
       }
@@ -1933,4 +1963,11 @@ public class MotionGroup {
   private final EditorMouseHandler mouseHandler = new EditorMouseHandler();
   @NotNull
   private final EditorSelectionHandler selectionHandler = new EditorSelectionHandler();
+
+  private static final NumberOptionHandle SCROLL = new NumberOptionHandle("scroll");
+  private static final NumberOptionHandle SCROLL_OFF = new NumberOptionHandle("scrolloff");
+  private static final NumberOptionHandle SCROLL_JUMP = new NumberOptionHandle("scrolljump");
+  private static final NumberOptionHandle SIDE_SCROLL = new NumberOptionHandle("sidescroll");
+  private static final NumberOptionHandle SIDE_SCROLL_OFF = new NumberOptionHandle("sidescrolloff");
+  private static final TextOptionHandle SELECTION = new TextOptionHandle("selection");
 }
@@ -22,6 +22,8 @@ import com.google.common.collect.ImmutableList;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
 import com.maddyhome.idea.vim.VimPlugin;
@@ -45,6 +47,7 @@ import com.maddyhome.idea.vim.helper.EditorHelper;
 import com.maddyhome.idea.vim.helper.StringHelper;
 import com.maddyhome.idea.vim.option.ListOption;
 import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.ViminfoOption;
 import com.maddyhome.idea.vim.ui.ClipboardHandler;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
@@ -74,6 +77,7 @@ public class RegisterGroup {
   @NotNull private final HashMap<Character, Register> registers = new HashMap<>();
   private char recordRegister = 0;
   @Nullable private List<KeyStroke> recordList = null;
+  @NotNull private final SimpleModificationTracker stateTracker = new SimpleModificationTracker();
 
   public RegisterGroup() {
     final ListOption clipboardOption = Options.getInstance().getListOption(Options.CLIPBOARD);
@@ -151,6 +155,8 @@ public class RegisterGroup {
     // Null register doesn't get saved
     if (lastRegister == '_') return true;
 
+    stateTracker.incModificationCount();
+
     int start = range.getStartOffset();
     int end = range.getEndOffset();
     // Normalize the start and end
@@ -332,6 +338,7 @@ public class RegisterGroup {
 
   public void setKeys(char register, @NotNull List<KeyStroke> keys) {
     registers.put(register, new Register(register, SelectionType.CHARACTER_WISE, keys));
+    stateTracker.incModificationCount();
   }
 
   public void finishRecording(Editor editor) {
@@ -349,6 +356,7 @@ public class RegisterGroup {
         else {
           reg.addKeys(recordList);
         }
+        stateTracker.incModificationCount();
       }
       CommandState.getInstance(editor).setRecording(false);
     }
@@ -356,33 +364,59 @@ public class RegisterGroup {
     recordRegister = 0;
   }
 
+  /**
+   * Tracks changes of the registers that are saved by {@link #saveData(Element)}
+   */
+  @NotNull
+  public ModificationTracker getStateTracker() {
+    return stateTracker;
+  }
+
   public void saveData(@NotNull final Element element) {
     logger.debug("saveData");
     final Element registersElement = new Element("registers");
-    for (Character key : registers.keySet()) {
-      final Register register = registers.get(key);
-      final Element registerElement = new Element("register");
-      registerElement.setAttribute("name", String.valueOf(key));
-      registerElement.setAttribute("type", Integer.toString(register.getType().getValue()));
-      final String text = register.getText();
-      if (text != null) {
-        final Element textElement = new Element("text");
-        StringHelper.setSafeXmlText(textElement, text);
-        registerElement.addContent(textElement);
-      }
-      else {
-        final Element keys = new Element("keys");
-        final List<KeyStroke> list = register.getKeys();
-        for (KeyStroke stroke : list) {
-          final Element k = new Element("key");
-          k.setAttribute("char", Integer.toString(stroke.getKeyChar()));
-          k.setAttribute("code", Integer.toString(stroke.getKeyCode()));
-          k.setAttribute("mods", Integer.toString(stroke.getModifiers()));
-          keys.addContent(k);
+    final int maxLines = getSaveMaxLines();
+    final int maxSize = getSaveMaxSize();
+    // Nothing is saved when either limit is zero
+    if (maxLines != 0 && maxSize != 0) {
+      for (Character key : registers.keySet()) {
+        final Register register = registers.get(key);
+        final Element registerElement = new Element("register");
+        registerElement.setAttribute("name", String.valueOf(key));
+        registerElement.setAttribute("type", Integer.toString(register.getType().getValue()));
+        final String text = register.getText();
+        if (text != null) {
+          // Huge registers aren't saved at all, long ones are truncated
+          if (text.length() > maxSize) {
+            continue;
+          }
+          final Element textElement = new Element("text");
+          StringHelper.setSafeXmlText(textElement, truncateLines(text, register.getType(), maxLines));
+          registerElement.addContent(textElement);
+        }
+        else {
+          final List<KeyStroke> list = register.getKeys();
+          final Element keys = new Element("keys");
+          final String notation = toSavedKeyNotation(list);
+          if (notation != null) {
+            if (notation.length() > maxSize) {
+              continue;
+            }
+            StringHelper.setSafeXmlText(keys, notation);
+          }
+          else {
+            for (KeyStroke stroke : list) {
+              final Element k = new Element("key");
+              k.setAttribute("char", Integer.toString(stroke.getKeyChar()));
+              k.setAttribute("code", Integer.toString(stroke.getKeyCode()));
+              k.setAttribute("mods", Integer.toString(stroke.getModifiers()));
+              keys.addContent(k);
+            }
+          }
+          registerElement.addContent(keys);
         }
-        registerElement.addContent(keys);
+        registersElement.addContent(registerElement);
       }
-      registersElement.addContent(registerElement);
     }
 
     element.addContent(registersElement);
@@ -414,6 +448,12 @@ public class RegisterGroup {
           //noinspection unchecked
           final List<Element> keyElements = keysElement.getChildren("key");
           final List<KeyStroke> strokes = new ArrayList<>();
+          if (keyElements.isEmpty()) {
+            final String notation = StringHelper.getSafeXmlText(keysElement);
+            if (notation != null) {
+              strokes.addAll(StringHelper.parseKeys(notation));
+            }
+          }
           for (Element keyElement : keyElements) {
             final int code = Integer.parseInt(keyElement.getAttributeValue("code"));
             final int modifiers = Integer.parseInt(keyElement.getAttributeValue("mods"));
@@ -430,6 +470,65 @@ public class RegisterGroup {
     }
   }
 
+  /**
+   * Gets the maximum number of lines saved for each register, the '<' item of 'viminfo'
+   */
+  private static int getSaveMaxLines() {
+    // '"' is the old name of the '<' item, negative values are ignored like in Vim
+    final int lines = ViminfoOption.getItem('<', ViminfoOption.getItem('"', Integer.MAX_VALUE));
+    return lines >= 0 ? lines : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Gets the maximum number of characters saved for each register, the 's' item of 'viminfo'
+   */
+  private static int getSaveMaxSize() {
+    final int kb = ViminfoOption.getItem('s', -1);
+    return kb >= 0 && kb < Integer.MAX_VALUE / 1024 ? kb * 1024 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Keeps only the first lines of the text.
+   */
+  @NotNull
+  private static String truncateLines(@NotNull String text, @NotNull SelectionType type, int maxLines) {
+    int offset = -1;
+    for (int i = 0; i < maxLines; i++) {
+      offset = text.indexOf('\n', offset + 1);
+      if (offset < 0) {
+        return text;
+      }
+    }
+    final int end = type == SelectionType.LINE_WISE ? offset + 1 : Math.max(offset, 0);
+    return end < text.length() ? text.substring(0, end) : text;
+  }
+
+  /**
+   * Converts the keys of a recorded register to key notation.
+   *
+   * @return The notation or null if the keys cannot be parsed back from it
+   */
+  @Nullable
+  private static String toSavedKeyNotation(@NotNull List<KeyStroke> keys) {
+    final StringBuilder builder = new StringBuilder();
+    for (KeyStroke key : keys) {
+      final char c = key.getKeyChar();
+      if (c == '\\' || c == '<') {
+        builder.append('\\').append(c);
+      }
+      else {
+        builder.append(StringHelper.toKeyNotation(key));
+      }
+    }
+    final String notation = builder.toString();
+    try {
+      return StringHelper.parseKeys(notation).equals(keys) ? notation : null;
+    }
+    catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   @Nullable
   private Register refreshClipboardRegister(char r) {
     final String text = ClipboardHandler.getClipboardText();
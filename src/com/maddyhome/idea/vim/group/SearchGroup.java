@@ -20,6 +20,7 @@ package com.maddyhome.idea.vim.group;
 import com.google.common.collect.Lists;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.EditorFactory;
 import com.intellij.openapi.editor.colors.EditorColors;
@@ -39,12 +40,12 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.CommandState;
 import com.maddyhome.idea.vim.command.SelectionType;
-import com.maddyhome.idea.vim.common.CharacterPosition;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.ex.LineRange;
 import com.maddyhome.idea.vim.helper.*;
 import com.maddyhome.idea.vim.option.ListOption;
 import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.ToggleOptionHandle;
 import com.maddyhome.idea.vim.regexp.CharHelper;
 import com.maddyhome.idea.vim.regexp.CharPointer;
 import com.maddyhome.idea.vim.regexp.CharacterClasses;
@@ -170,7 +171,7 @@ public class SearchGroup {
       cmd.inc();
     }
     else {
-      do_all = Options.getInstance().isSet("gdefault");
+      do_all = GDEFAULT.isSet();
       do_ask = false;
       do_error = true;
       //do_print = false;
@@ -315,8 +316,9 @@ public class SearchGroup {
     boolean firstMatch = true;
     boolean got_quit = false;
     int lcount = EditorHelper.getLineCount(editor);
+    final LineCursor cursor = new LineCursor(editor);
     for (int lnum = line1; lnum <= line2 && !got_quit; ) {
-      CharacterPosition newpos = null;
+      boolean replaced = false;
       int nmatch = sp.vim_regexec_multi(regmatch, editor, lcount, lnum, searchcol);
       if (nmatch > 0) {
         if (firstMatch) {
@@ -331,10 +333,10 @@ public class SearchGroup {
         //logger.debug("found match[" + spos + "," + epos + "] - replace " + match);
 
         int line = lnum + regmatch.startpos[0].lnum;
-        CharacterPosition startpos = new CharacterPosition(lnum + regmatch.startpos[0].lnum, regmatch.startpos[0].col);
-        CharacterPosition endpos = new CharacterPosition(lnum + regmatch.endpos[0].lnum, regmatch.endpos[0].col);
-        int startoff = EditorHelper.characterPositionToOffset(editor, startpos);
-        int endoff = EditorHelper.characterPositionToOffset(editor, endpos);
+        int endline = lnum + regmatch.endpos[0].lnum;
+        int endcol = regmatch.endpos[0].col;
+        int startoff = EditorHelper.characterPositionToOffset(editor, line, regmatch.startpos[0].col);
+        int endoff = EditorHelper.characterPositionToOffset(editor, endline, endcol);
         int newend = startoff + match.length();
 
         if (do_all || line != lastLine) {
@@ -370,10 +372,11 @@ public class SearchGroup {
           if (doReplace) {
             editor.getDocument().replaceString(startoff, endoff, match);
             lastMatch = startoff;
-            newpos = EditorHelper.offsetToCharacterPosition(editor, newend);
+            cursor.moveToOffset(newend);
+            replaced = true;
 
-            lnum += newpos.line - endpos.line;
-            line2 += newpos.line - endpos.line;
+            lnum += cursor.getLine() - endline;
+            line2 += cursor.getLine() - endline;
           }
         }
 
@@ -381,12 +384,12 @@ public class SearchGroup {
 
         lnum += nmatch - 1;
         if (do_all && startoff != endoff) {
-          if (newpos != null) {
-            lnum = newpos.line;
-            searchcol = newpos.column;
+          if (replaced) {
+            lnum = cursor.getLine();
+            searchcol = cursor.getColumn(newend);
           }
           else {
-            searchcol = endpos.column;
+            searchcol = endcol;
           }
         }
         else {
@@ -446,9 +449,57 @@ public class SearchGroup {
     return result.get();
   }
 
+  /**
+   * Finds the lines that contain a match of the pattern, for :global and :vglobal. An empty pattern uses the last
+   * search pattern. The pattern becomes the last search pattern.
+   *
+   * @param editor    The editor to search in
+   * @param pattern   The pattern to search for
+   * @param startLine The first line to check
+   * @param endLine   The last line to check
+   * @param invert    True to find the lines that don't match instead
+   * @return The line numbers in increasing order, or null if the pattern is invalid
+   */
+  @Nullable
+  public int[] findMatchingLines(@NotNull Editor editor, @NotNull String pattern, int startLine, int endLine,
+                                 boolean invert) {
+    if (pattern.isEmpty()) {
+      if (lastSearch == null) {
+        VimPlugin.showMessage(MessageHelper.message(Msg.e_noprevre));
+        return null;
+      }
+      pattern = lastSearch;
+    }
+    lastSearch = pattern;
+    setLastPattern(editor, pattern);
+
+    final RegExp.regmmatch_T regMatch = new RegExp.regmmatch_T();
+    final RegExp regExp = new RegExp();
+    regMatch.regprog = regExp.vim_regcomp(pattern, 1);
+    if (regMatch.regprog == null) {
+      VimPlugin.showMessage(MessageHelper.message(Msg.e_invcmd));
+      return null;
+    }
+    regMatch.rmm_ic = shouldIgnoreCase(pattern, false);
+
+    final int lineCount = EditorHelper.getLineCount(editor);
+    int[] lines = new int[16];
+    int size = 0;
+    for (int line = startLine; line <= endLine; line++) {
+      final boolean matches = regExp.vim_regexec_multi(regMatch, editor, lineCount, line, 0) > 0;
+      if (matches != invert) {
+        if (size == lines.length) {
+          lines = Arrays.copyOf(lines, size * 2);
+        }
+        lines[size++] = line;
+      }
+    }
+    return Arrays.copyOf(lines, size);
+  }
+
   private static boolean shouldIgnoreCase(@NotNull String pattern, boolean noSmartCase) {
-    boolean sc = !noSmartCase && Options.getInstance().isSet("smartcase");
-    boolean ic = Options.getInstance().isSet("ignorecase");
+    boolean sc = !noSmartCase && SMART_CASE.isSet();
+    boolean ic = IGNORE_CASE.isSet();
 
     return ic && !(sc && StringHelper.containsUpperCase(pattern));
   }
@@ -557,6 +608,20 @@ public class SearchGroup {
     return searchNextWithDirection(editor, caret, count, -lastDir);
   }
 
+  /**
+   * Finds all the matches of the last search pattern in a single pass over the file
+   *
+   * @param editor The editor to search in
+   * @return The ranges of the matches in the order they appear in the file
+   */
+  @NotNull
+  public List<TextRange> findAllMatches(@NotNull Editor editor) {
+    if (lastSearch == null) {
+      return Collections.emptyList();
+    }
+    return findAll(editor, lastSearch, 0, -1, shouldIgnoreCase(lastSearch, false));
+  }
+
   public int searchNextFromOffset(@NotNull Editor editor, int offset, int count) {
     searchHighlight(false);
     return findItOffset(editor, offset, count, 1, false);
@@ -608,6 +673,48 @@ public class SearchGroup {
     }
   }
 
+  /**
+   * Refreshes the search highlights of all editors of the document after the text between the offsets was changed
+   *
+   * @param document    The changed document
+   * @param startOffset The start of the changed text
+   * @param endOffset   The end of the changed text, after the change
+   */
+  public void updateHighlights(@NotNull Document document, int startOffset, int endOffset) {
+    Project[] projs = ProjectManager.getInstance().getOpenProjects();
+    for (Project proj : projs) {
+      Editor[] editors = EditorFactory.getInstance().getEditors(document, proj);
+      for (Editor editor : editors) {
+        Collection hls = EditorData.getLastHighlights(editor);
+        if (hls == null) {
+          continue;
+        }
+
+        if (logger.isDebugEnabled()) {
+          logger.debug("hls=" + hls);
+          logger.debug("changed=[" + startOffset + "," + endOffset + "]");
+        }
+        Iterator iter = hls.iterator();
+        while (iter.hasNext()) {
+          RangeHighlighter rh = (RangeHighlighter)iter.next();
+          if (!rh.isValid() || (endOffset >= rh.getStartOffset() && startOffset <= rh.getEndOffset())) {
+            iter.remove();
+            editor.getMarkupModel().removeHighlighter(rh);
+          }
+        }
+
+        int sl = editor.offsetToLogicalPosition(startOffset).line;
+        int el = editor.offsetToLogicalPosition(endOffset).line;
+        highlightSearchLines(editor, false, sl, el);
+        hls = EditorData.getLastHighlights(editor);
+        if (logger.isDebugEnabled()) {
+          logger.debug("sl=" + sl + ", el=" + el);
+          logger.debug("hls=" + hls);
+        }
+      }
+    }
+  }
+
   private void highlightSearchLines(@NotNull Editor editor, boolean noSmartCase, int startLine, int endLine) {
     if (lastSearch != null) {
       highlightSearchLines(editor, lastSearch, startLine, endLine, shouldIgnoreCase(lastSearch, noSmartCase));
@@ -630,7 +737,7 @@ public class SearchGroup {
       }
       return d2 - d1;
     });
-    if (!Options.getInstance().isSet("wrapscan")) {
+    if (!WRAP_SCAN.isSet()) {
       final int start = max.getStartOffset();
       if (forwards && start < offset) {
         return null;
@@ -675,17 +782,15 @@ public class SearchGroup {
     for (int line = startLine; line <= actualEndLine; ) {
       int matchedLines = regExp.vim_regexec_multi(regMatch, editor, lineCount, line, col);
       if (matchedLines > 0) {
-        final CharacterPosition startPos = new CharacterPosition(line + regMatch.startpos[0].lnum,
-                                                                 regMatch.startpos[0].col);
-        final CharacterPosition endPos = new CharacterPosition(line + regMatch.endpos[0].lnum,
-                                                               regMatch.endpos[0].col);
-        int start = EditorHelper.characterPositionToOffset(editor, startPos);
-        int end = EditorHelper.characterPositionToOffset(editor, endPos);
+        int start = EditorHelper.characterPositionToOffset(editor, line + regMatch.startpos[0].lnum,
+                                                           regMatch.startpos[0].col);
+        int end = EditorHelper.characterPositionToOffset(editor, line + regMatch.endpos[0].lnum,
+                                                         regMatch.endpos[0].col);
         results.add(new TextRange(start, end));
 
         if (start != end) {
           line += matchedLines - 1;
-          col = endPos.column;
+          col = regMatch.endpos[0].col;
         }
         else {
           line += matchedLines;
@@ -720,7 +825,7 @@ public class SearchGroup {
 
   private int findItOffset(@NotNull Editor editor, int startOffset, int count, int dir,
                            boolean noSmartCase) {
-    boolean wrap = Options.getInstance().isSet("wrapscan");
+    boolean wrap = WRAP_SCAN.isSet();
     TextRange range = findIt(editor, startOffset, count, dir, noSmartCase, wrap, true, true);
     if (range == null) {
       return -1;
@@ -848,10 +953,11 @@ public class SearchGroup {
     //REMatch match = null;
     */
 
-    CharacterPosition lpos = EditorHelper.offsetToCharacterPosition(editor, startOffset);
+    final LineCursor cursor = new LineCursor(editor);
+    cursor.moveToOffset(startOffset);
     RegExp.lpos_T pos = new RegExp.lpos_T();
-    pos.lnum = lpos.line;
-    pos.col = lpos.column;
+    pos.lnum = cursor.getLine();
+    pos.col = cursor.getColumn(startOffset);
 
     int found;
     int lnum;           /* no init to shut up Apollo cc */
@@ -910,7 +1016,8 @@ public class SearchGroup {
           if (nmatched > 0) {
             /* match may actually be in another line when using \zs */
             lnum += regmatch.startpos[0].lnum;
-            ptr = new CharPointer(EditorHelper.getLineBuffer(editor, lnum));
+            cursor.moveToLine(lnum);
+            ptr = new CharPointer(cursor.getBuffer());
             startcol = regmatch.startpos[0].col;
             endpos = regmatch.endpos[0];
 
@@ -948,7 +1055,8 @@ public class SearchGroup {
 
                 /* Need to get the line pointer again, a
         * multi-line search may have made it invalid. */
-                ptr = new CharPointer(EditorHelper.getLineBuffer(editor, lnum));
+                cursor.moveToLine(lnum);
+                ptr = new CharPointer(cursor.getBuffer());
               }
               if (!match_ok) {
                 continue;
@@ -997,7 +1105,8 @@ public class SearchGroup {
 
                 /* Need to get the line pointer again, a
         * multi-line search may have made it invalid. */
-                ptr = new CharPointer(EditorHelper.getLineBuffer(editor, lnum));
+                cursor.moveToLine(lnum);
+                ptr = new CharPointer(cursor.getBuffer());
               }
 
               /*
@@ -1080,8 +1189,8 @@ public class SearchGroup {
     //    editor.logicalPositionToOffset(new LogicalPosition(endpos.lnum, endpos.col)));
     //return new TextRange(editor.logicalPositionToOffset(new LogicalPosition(pos.lnum, 0)) + pos.col,
     //    editor.logicalPositionToOffset(new LogicalPosition(endpos.lnum, 0)) + endpos.col);
-    return new TextRange(EditorHelper.characterPositionToOffset(editor, new CharacterPosition(pos.lnum, pos.col)),
-                         EditorHelper.characterPositionToOffset(editor, new CharacterPosition(endpos.lnum, endpos.col)));
+    return new TextRange(EditorHelper.characterPositionToOffset(editor, pos.lnum, pos.col),
+                         EditorHelper.characterPositionToOffset(editor, endpos.lnum, endpos.col));
   }
 
   @NotNull
@@ -1210,45 +1319,12 @@ public class SearchGroup {
 
   public static class DocumentSearchListener extends DocumentAdapter {
     public void documentChanged(@NotNull DocumentEvent event) {
-      if (!VimPlugin.isEnabled()) {
+      if (!VimPlugin.isEnabled() || EditorData.isBulkEditing(event.getDocument())) {
         return;
       }
 
-      Project[] projs = ProjectManager.getInstance().getOpenProjects();
-      for (Project proj : projs) {
-        Editor[] editors = EditorFactory.getInstance().getEditors(event.getDocument(), proj);
-        for (Editor editor : editors) {
-          Collection hls = EditorData.getLastHighlights(editor);
-          if (hls == null) {
-            continue;
-          }
-
-          int soff = event.getOffset();
-          int eoff = soff + event.getNewLength();
-
-          if (logger.isDebugEnabled()) {
-            logger.debug("hls=" + hls);
-            logger.debug("event=" + event);
-          }
-          Iterator iter = hls.iterator();
-          while (iter.hasNext()) {
-            RangeHighlighter rh = (RangeHighlighter)iter.next();
-            if (!rh.isValid() || (eoff >= rh.getStartOffset() && soff <= rh.getEndOffset())) {
-              iter.remove();
-              editor.getMarkupModel().removeHighlighter(rh);
-            }
-          }
-
-          int sl = editor.offsetToLogicalPosition(soff).line;
-          int el = editor.offsetToLogicalPosition(eoff).line;
-          VimPlugin.getSearch().highlightSearchLines(editor, false, sl, el);
-          hls = EditorData.getLastHighlights(editor);
-          if (logger.isDebugEnabled()) {
-            logger.debug("sl=" + sl + ", el=" + el);
-            logger.debug("hls=" + hls);
-          }
-        }
-      }
+      VimPlugin.getSearch().updateHighlights(event.getDocument(), event.getOffset(),
+                                             event.getOffset() + event.getNewLength());
     }
   }
 
@@ -1278,5 +1354,10 @@ public class SearchGroup {
   private static final int RE_SEARCH = 2;
   private static final int RE_SUBST = 3;
 
+  private static final ToggleOptionHandle GDEFAULT = new ToggleOptionHandle("gdefault");
+  private static final ToggleOptionHandle IGNORE_CASE = new ToggleOptionHandle("ignorecase");
+  private static final ToggleOptionHandle SMART_CASE = new ToggleOptionHandle("smartcase");
+  private static final ToggleOptionHandle WRAP_SCAN = new ToggleOptionHandle("wrapscan");
+
   private static final Logger logger = Logger.getInstance(SearchGroup.class.getName());
 }
@@ -25,6 +25,7 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.Argument;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.CommandState;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.helper.EditorData;
 import com.maddyhome.idea.vim.helper.EditorHelper;
 import org.jetbrains.annotations.NotNull;
@@ -57,8 +58,17 @@ public abstract class ChangeEditorActionHandler extends EditorActionHandlerBase
 
     EditorData.setChangeSwitchMode(editor, null);
 
+    Boolean planned = null;
+    if (myIsMulticaretChangeAction && editor.getCaretModel().getCaretCount() > 1) {
+      planned = VimPlugin.getChange().applyPlannedEdits(editor, (caret, edits) ->
+        plan(editor, caret, cmd.getCount(), cmd.getRawCount(), cmd.getArgument(), edits));
+    }
+
     boolean worked;
-    if (myIsMulticaretChangeAction) {
+    if (planned != null) {
+      worked = planned;
+    }
+    else if (myIsMulticaretChangeAction) {
       worked = true;
       @NotNull List<Caret> carets = EditorHelper.getOrderedCaretsList(editor, myCaretOrder);
       for (Caret caret : carets) {
@@ -92,6 +102,20 @@ public abstract class ChangeEditorActionHandler extends EditorActionHandlerBase
     return worked;
   }
 
+  /**
+   * Plans the change for one caret without changing the document or moving the caret. Handlers of changes that only
+   * edit the text around their caret may override it to have all carets changed in one batch, see
+   * {@link com.maddyhome.idea.vim.group.ChangeGroup#applyPlannedEdits}.
+   *
+   * @param edits The edits to add the change to, all offsets are relative to the unmodified document
+   * @return The offset to move the caret to after the change, relative to the unmodified document, or -1 if the
+   * change failed for this caret
+   */
+  protected int plan(@NotNull Editor editor, @NotNull Caret caret, int count, int rawCount, @Nullable Argument argument,
+                     @NotNull TextEdits edits) throws ExecuteMethodNotOverriddenException {
+    throw new ExecuteMethodNotOverriddenException(this.getClass());
+  }
+
   public boolean execute(@NotNull Editor editor, @NotNull DataContext context, int count, int rawCount,
                          @Nullable Argument argument) throws ExecuteMethodNotOverriddenException {
     if (!myIsMulticaretChangeAction) {
@@ -26,6 +26,7 @@ import com.maddyhome.idea.vim.VimPlugin;
 import com.maddyhome.idea.vim.command.Command;
 import com.maddyhome.idea.vim.command.CommandState;
 import com.maddyhome.idea.vim.command.VisualChange;
+import com.maddyhome.idea.vim.common.TextEdits;
 import com.maddyhome.idea.vim.common.TextRange;
 import com.maddyhome.idea.vim.group.MotionGroup;
 import com.maddyhome.idea.vim.helper.CaretData;
@@ -71,8 +72,25 @@ public abstract class VisualOperatorActionHandler extends EditorActionHandlerBas
     VisualStartFinishRunnable runnable = new VisualStartFinishRunnable(editor, cmd, willRunForEachCaret);
     runnable.start();
 
+    Boolean planned = null;
+    if (willRunForEachCaret && editor.getCaretModel().getCaretCount() > 1) {
+      for (Caret caret : editor.getCaretModel().getAllCarets()) {
+        if (CaretData.getVisualTextRange(caret) == null) {
+          return false;
+        }
+      }
+      planned = VimPlugin.getChange().applyPlannedEdits(editor, (caret, edits) -> {
+        final TextRange range = CaretData.getVisualTextRange(caret);
+        assert range != null;
+        return plan(editor, caret, cmd, range, edits);
+      });
+    }
+
     boolean res;
-    if (willRunForEachCaret) {
+    if (planned != null) {
+      res = planned;
+    }
+    else if (willRunForEachCaret) {
       res = true;
       for (Caret caret : EditorHelper.getOrderedCaretsList(editor, myCaretOrder)) {
         TextRange range = CaretData.getVisualTextRange(caret);
@@ -113,6 +131,20 @@ public abstract class VisualOperatorActionHandler extends EditorActionHandlerBas
     return res;
   }
 
+  /**
+   * Plans the change of the operator for one caret without changing the document or moving the caret. Handlers of
+   * operators that only edit the text of their range may override it to have all carets changed in one batch, see
+   * {@link com.maddyhome.idea.vim.group.ChangeGroup#applyPlannedEdits}.
+   *
+   * @param edits The edits to add the change to, all offsets are relative to the unmodified document
+   * @return The offset to move the caret to after the change, relative to the unmodified document, or -1 if the
+   * operator failed for this caret
+   */
+  protected int plan(@NotNull Editor editor, @NotNull Caret caret, @NotNull Command cmd, @NotNull TextRange range,
+                     @NotNull TextEdits edits) throws ExecuteMethodNotOverriddenException {
+    throw new ExecuteMethodNotOverriddenException(this.getClass());
+  }
+
   protected boolean execute(@NotNull Editor editor, @NotNull DataContext context, @NotNull Command cmd,
                             @NotNull TextRange range) throws ExecuteMethodNotOverriddenException {
     if (!myRunForEachCaret) {
@@ -23,13 +23,8 @@ public class CaretData {
    * @return Returns the last column as set by {@link #setLastColumn} or the current caret column
    */
   public static int getLastColumn(@NotNull Caret caret) {
-    Integer col = caret.getUserData(LAST_COLUMN);
-    if (col == null) {
-      return caret.getVisualPosition().column;
-    }
-    else {
-      return col;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.lastColumn != UNSET ? state.lastColumn : caret.getVisualPosition().column;
   }
 
   /**
@@ -44,10 +39,10 @@ public class CaretData {
     boolean currentIsDollar = col >= MotionGroup.LAST_COLUMN;
 
     if (!CommandState.inVisualBlockMode(editor)) {
-      caret.putUserData(LAST_COLUMN, col);
+      getState(caret).lastColumn = col;
     }
     else {
-      editor.getCaretModel().getPrimaryCaret().putUserData(LAST_COLUMN, col);
+      getState(editor.getCaretModel().getPrimaryCaret()).lastColumn = col;
     }
 
     if (previousWasDollar != currentIsDollar && CommandState.inVisualBlockMode(editor)) {
@@ -59,63 +54,45 @@ public class CaretData {
    * Gets the visual block start for the caret.
    */
   public static int getVisualStart(@NotNull Caret caret) {
-    Integer visualStart = caret.getUserData(VISUAL_START);
-
-    if (visualStart == null) {
-      return caret.getOffset();
-    }
-    else {
-      return visualStart;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.visualStart != UNSET ? state.visualStart : caret.getOffset();
   }
 
   /**
    * Sets the visual block start for the caret.
    */
   public static void setVisualStart(@NotNull Caret caret, int visualStart) {
-    caret.putUserData(VISUAL_START, visualStart);
+    getState(caret).visualStart = visualStart;
   }
 
   /**
    * Gets the visual block end for the caret.
    */
   public static int getVisualEnd(@NotNull Caret caret) {
-    Integer visualEnd = caret.getUserData(VISUAL_END);
-
-    if (visualEnd == null) {
-      return caret.getOffset();
-    }
-    else {
-      return visualEnd;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.visualEnd != UNSET ? state.visualEnd : caret.getOffset();
   }
 
   /**
    * Sets the visual block end for the caret.
    */
   public static void setVisualEnd(@NotNull Caret caret, int visualEnd) {
-    caret.putUserData(VISUAL_END, visualEnd);
+    getState(caret).visualEnd = visualEnd;
   }
 
   /**
    * Gets the visual offset for the caret.
    */
   public static int getVisualOffset(@NotNull Caret caret) {
-    Integer visualOffset = caret.getUserData(VISUAL_OFFSET);
-
-    if (visualOffset == null) {
-      return caret.getOffset();
-    }
-    else {
-      return visualOffset;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.visualOffset != UNSET ? state.visualOffset : caret.getOffset();
   }
 
   /**
    * Sets the visual offset for the caret.
    */
   public static void setVisualOffset(@NotNull Caret caret, int visualOffset) {
-    caret.putUserData(VISUAL_OFFSET, visualOffset);
+    getState(caret).visualOffset = visualOffset;
   }
 
   /**
@@ -123,36 +100,30 @@ public class CaretData {
    */
   @Nullable
   public static VisualChange getLastVisualOperatorRange(@NotNull Caret caret) {
-    return caret.getUserData(VISUAL_OP);
+    final State state = caret.getUserData(STATE);
+    return state != null ? state.visualOperatorRange : null;
   }
 
   /**
    * Sets the previous visual operator range on the caret.
    */
   public static void setLastVisualOperatorRange(@NotNull Caret caret, @NotNull VisualChange range) {
-    caret.putUserData(VISUAL_OP, range);
+    getState(caret).visualOperatorRange = range;
   }
 
   /**
    * Gets the previous last column (set by {@link com.maddyhome.idea.vim.handler.VisualOperatorActionHandler.VisualStartFinishRunnable}).
    */
   public static int getPreviousLastColumn(@NotNull Caret caret) {
-    @Nullable Integer ret = caret.getUserData(PREV_LAST_COLUMN);
-
-
-    if (ret == null) {
-      return caret.getLogicalPosition().column;
-    }
-    else {
-      return ret;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.previousLastColumn != UNSET ? state.previousLastColumn : caret.getLogicalPosition().column;
   }
 
   /**
    * Sets the previous last column.
    */
   public static void setPreviousLastColumn(@NotNull Caret caret, int prevLastColumn) {
-    caret.putUserData(PREV_LAST_COLUMN, prevLastColumn);
+    getState(caret).previousLastColumn = prevLastColumn;
   }
 
   /**
@@ -160,14 +131,15 @@ public class CaretData {
    */
   @Nullable
   public static VisualChange getVisualChange(@NotNull Caret caret) {
-    return caret.getUserData(VISUAL_CHANGE);
+    final State state = caret.getUserData(STATE);
+    return state != null ? state.visualChange : null;
   }
 
   /**
    * Sets the visual change for current visual operator action.
    */
   public static void setVisualChange(@NotNull Caret caret, @Nullable VisualChange visualChange) {
-    caret.putUserData(VISUAL_CHANGE, visualChange);
+    getState(caret).visualChange = visualChange;
   }
 
   /**
@@ -175,50 +147,61 @@ public class CaretData {
    */
   @Nullable
   public static TextRange getVisualTextRange(@NotNull Caret caret) {
-    return caret.getUserData(VISUAL_TEXT_RANGE);
+    final State state = caret.getUserData(STATE);
+    return state != null ? state.visualTextRange : null;
   }
 
   /**
    * Sets the text range for current visual operator action.
    */
   public static void setVisualTextRange(@NotNull Caret caret, @Nullable TextRange range) {
-    caret.putUserData(VISUAL_TEXT_RANGE, range);
+    getState(caret).visualTextRange = range;
+  }
+
+  /**
+   * Gets the motion range of the current g@ operator for the caret, it's set only while the operator function runs.
+   */
+  @Nullable
+  public static TextRange getOperatorRange(@NotNull Caret caret) {
+    final State state = caret.getUserData(STATE);
+    return state != null ? state.operatorRange : null;
+  }
+
+  /**
+   * Sets the motion range of the current g@ operator for the caret.
+   */
+  public static void setOperatorRange(@NotNull Caret caret, @Nullable TextRange range) {
+    getState(caret).operatorRange = range;
   }
 
   /**
    * Gets the insertion start for the caret
    */
   public static int getInsertStart(@NotNull Caret caret) {
-    Integer ret = caret.getUserData(INSERT_START);
-
-    if (ret == null) {
-      return caret.getOffset();
-    }
-    else {
-      return ret;
-    }
+    final State state = caret.getUserData(STATE);
+    return state != null && state.insertStart != UNSET ? state.insertStart : caret.getOffset();
   }
 
   /**
    * Set the insertion start for the caret
    */
   public static void setInsertStart(@NotNull Caret caret, int insertStart) {
-    caret.putUserData(INSERT_START, insertStart);
+    getState(caret).insertStart = insertStart;
   }
 
   /**
    * Determines whether a caret was in the first line before inserting a new line above.
    */
   public static boolean wasInFirstLine(@NotNull Caret caret) {
-    Boolean res = caret.getUserData(WAS_IN_FIRST_LINE);
-    return (res != null) && res;
+    final State state = caret.getUserData(STATE);
+    return state != null && state.wasInFirstLine;
   }
 
   /**
    * Sets the flag determining that a caret was in the first line before inserting a new line above.
    */
   public static void setWasInFirstLine(@NotNull Caret caret, boolean value) {
-    caret.putUserData(WAS_IN_FIRST_LINE, value);
+    getState(caret).wasInFirstLine = value;
   }
 
   /**
@@ -227,14 +210,38 @@ public class CaretData {
   private CaretData() {
   }
 
-  private static final Key<Integer> LAST_COLUMN = new Key<>("lastColumn");
-  private static final Key<Integer> VISUAL_START = new Key<>("visualStart");
-  private static final Key<Integer> VISUAL_END = new Key<>("visualEnd");
-  private static final Key<Integer> VISUAL_OFFSET = new Key<>("visualOffset");
-  private static final Key<Integer> PREV_LAST_COLUMN = new Key<>("previousLastColumn");
-  private static final Key<Integer> INSERT_START = new Key<>("insertStart");
-  private static final Key<Boolean> WAS_IN_FIRST_LINE = new Key<>("wasInFirstLine");
-  private static final Key<VisualChange> VISUAL_CHANGE = new Key<>("visualChange");
-  private static final Key<VisualChange> VISUAL_OP = new Key<>("visualOp");
-  private static final Key<TextRange> VISUAL_TEXT_RANGE = new Key<>("visualTextRange");
+  @NotNull
+  private static State getState(@NotNull Caret caret) {
+    State state = caret.getUserData(STATE);
+    if (state == null) {
+      state = new State();
+      caret.putUserData(STATE, state);
+    }
+    return state;
+  }
+
+  /**
+   * All the Vim data of a caret, attached to it as a single user data entry. The values are kept in primitive fields
+   * so moving hundreds of carets doesn't box or hash anything.
+   */
+  private static final class State {
+    private int lastColumn = UNSET;
+    private int visualStart = UNSET;
+    private int visualEnd = UNSET;
+    private int visualOffset = UNSET;
+    private int previousLastColumn = UNSET;
+    private int insertStart = UNSET;
+    private boolean wasInFirstLine = false;
+    @Nullable private VisualChange visualChange = null;
+    @Nullable private VisualChange visualOperatorRange = null;
+    @Nullable private TextRange visualTextRange = null;
+    @Nullable private TextRange operatorRange = null;
+  }
+
+  /**
+   * Marks an int value that hasn't been set, so the getter falls back to the current caret position
+   */
+  private static final int UNSET = Integer.MIN_VALUE;
+
+  private static final Key<State> STATE = new Key<>("IdeaVim.caretState");
 }
@@ -18,8 +18,7 @@
 
 package com.maddyhome.idea.vim.helper;
 
-import com.maddyhome.idea.vim.option.KeywordOption;
-import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.KeywordOptionHandle;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -40,6 +39,8 @@ public class CharacterHelper {
   public static final char CASE_UPPER = 'u';
   public static final char CASE_LOWER = 'l';
 
+  private static final KeywordOptionHandle KEYWORD = new KeywordOptionHandle("iskeyword");
+
   /**
    * This returns the type of the supplied character. The logic is as follows:<br>
    * If the character is whitespace, <code>WHITESPACE</code> is returned.<br>
@@ -53,20 +54,23 @@ public class CharacterHelper {
    */
   @NotNull
   public static CharacterType charType(char ch, boolean punctuationAsLetters) {
-    final Character.UnicodeBlock block = Character.UnicodeBlock.of(ch);
     if (Character.isWhitespace(ch)) {
       return CharacterType.WHITESPACE;
     }
-    else if (block == Character.UnicodeBlock.HIRAGANA) {
-      return CharacterType.HIRAGANA;
-    }
-    else if (block == Character.UnicodeBlock.KATAKANA) {
-      return CharacterType.KATAKANA;
-    }
-    else if (isHalfWidthKatakanaLetter(ch)) {
-      return CharacterType.HALF_WIDTH_KATAKANA;
+    // Latin-1 characters are in none of the blocks below, so their block isn't looked up
+    if (ch >= '\u0100') {
+      final Character.UnicodeBlock block = Character.UnicodeBlock.of(ch);
+      if (block == Character.UnicodeBlock.HIRAGANA) {
+        return CharacterType.HIRAGANA;
+      }
+      else if (block == Character.UnicodeBlock.KATAKANA) {
+        return CharacterType.KATAKANA;
+      }
+      else if (isHalfWidthKatakanaLetter(ch)) {
+        return CharacterType.HALF_WIDTH_KATAKANA;
+      }
     }
-    else if (punctuationAsLetters || ((KeywordOption)Options.getInstance().getOption("iskeyword")).isKeyword(ch)) {
+    if (punctuationAsLetters || KEYWORD.isKeyword(ch)) {
       return CharacterType.KEYWORD;
     }
     else {
@@ -86,6 +90,16 @@ public class CharacterHelper {
    * @return The character with changed case or the original if not a letter
    */
   public static char changeCase(char ch, char type) {
+    if (ch < 0x80) {
+      if (ch >= 'a' && ch <= 'z' && (type == CASE_TOGGLE || type == CASE_UPPER)) {
+        return (char)(ch - ('a' - 'A'));
+      }
+      if (ch >= 'A' && ch <= 'Z' && (type == CASE_TOGGLE || type == CASE_LOWER)) {
+        return (char)(ch + ('a' - 'A'));
+      }
+      return ch;
+    }
+
     switch (type) {
       case CASE_TOGGLE:
         if (Character.isLowerCase(ch)) {
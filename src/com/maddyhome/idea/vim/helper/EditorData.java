@@ -20,7 +20,9 @@ package com.maddyhome.idea.vim.helper;
 
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.TextAnnotationGutterProvider;
 import com.intellij.openapi.editor.markup.RangeHighlighter;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.util.Key;
@@ -127,6 +129,18 @@ public class EditorData {
     editor.getDocument().putUserData(LAST_VISUAL_RANGE, textRange);
   }
 
+  /**
+   * Checks whether a batch of edits is currently being applied to the document. The search highlight listener uses
+   * this to skip per-change work that is done once for the whole batch afterwards.
+   */
+  public static boolean isBulkEditing(@NotNull Document document) {
+    return document.getUserData(BULK_EDITING) == Boolean.TRUE;
+  }
+
+  public static void setBulkEditing(@NotNull Document document, boolean value) {
+    document.putUserData(BULK_EDITING, value ? Boolean.TRUE : null);
+  }
+
   @Nullable
   public static CommandState getCommandState(@NotNull Editor editor) {
     return editor.getUserData(COMMAND_STATE);
@@ -174,6 +188,38 @@ public class EditorData {
     editor.putUserData(LINE_NUMBERS_SHOWN, value);
   }
 
+  /**
+   * @return The caret line the relative line numbers were last painted for, or -1 if they haven't been painted yet
+   */
+  public static int getRelativeNumbersLine(@NotNull Editor editor) {
+    final Integer res = editor.getUserData(RELATIVE_NUMBERS_LINE);
+    return res != null ? res : -1;
+  }
+
+  public static void setRelativeNumbersLine(@NotNull Editor editor, int line) {
+    editor.putUserData(RELATIVE_NUMBERS_LINE, line);
+  }
+
+  public static boolean isRelativeNumbersRepaintPending(@NotNull Editor editor) {
+    return editor.getUserData(RELATIVE_NUMBERS_REPAINT_PENDING) == Boolean.TRUE;
+  }
+
+  public static void setRelativeNumbersRepaintPending(@NotNull Editor editor, boolean value) {
+    editor.putUserData(RELATIVE_NUMBERS_REPAINT_PENDING, value);
+  }
+
+  /**
+   * @return The relative line numbers annotation in the gutter of the editor, or null if it isn't registered
+   */
+  @Nullable
+  public static TextAnnotationGutterProvider getRelativeNumbersProvider(@NotNull Editor editor) {
+    return editor.getUserData(RELATIVE_NUMBERS_PROVIDER);
+  }
+
+  public static void setRelativeNumbersProvider(@NotNull Editor editor, @Nullable TextAnnotationGutterProvider value) {
+    editor.putUserData(RELATIVE_NUMBERS_PROVIDER, value);
+  }
+
   @Nullable
   public static ExOutputPanel getMorePanel(@NotNull Editor editor) {
     return editor.getUserData(MORE_PANEL);
@@ -251,6 +297,20 @@ public class EditorData {
     editor.putUserData(VISUAL_BLOCK_OFFSET, visualBlockOffset);
   }
 
+  /**
+   * Gets the visual block the carets of the editor were last set up for.
+   *
+   * @param editor The editor
+   */
+  @Nullable
+  public static VisualBlockSelection getVisualBlockSelection(@NotNull Editor editor) {
+    return editor.getUserData(VISUAL_BLOCK_SELECTION);
+  }
+
+  public static void setVisualBlockSelection(@NotNull Editor editor, @Nullable VisualBlockSelection selection) {
+    editor.putUserData(VISUAL_BLOCK_SELECTION, selection);
+  }
+
   /**
    * Gets the visual block end for the editor.
    *
@@ -384,15 +444,21 @@ public class EditorData {
     new Key<Collection<RangeHighlighter>>("lastHighlights");
   private static final Key<CommandState> COMMAND_STATE = new Key<CommandState>("commandState");
   private static final Key<Boolean> CHANGE_GROUP = new Key<Boolean>("changeGroup");
+  private static final Key<Boolean> BULK_EDITING = new Key<Boolean>("bulkEditing");
   private static final Key<Boolean> MOTION_GROUP = new Key<Boolean>("motionGroup");
   public static final Key<Boolean> EDITOR_GROUP = new Key<Boolean>("editorGroup");
   public static final Key<Boolean> LINE_NUMBERS_SHOWN = new Key<Boolean>("lineNumbersShown");
+  private static final Key<Integer> RELATIVE_NUMBERS_LINE = new Key<>("IdeaVim.relativeNumbersLine");
+  private static final Key<Boolean> RELATIVE_NUMBERS_REPAINT_PENDING = new Key<>("IdeaVim.relativeNumbersRepaint");
+  private static final Key<TextAnnotationGutterProvider> RELATIVE_NUMBERS_PROVIDER =
+    new Key<>("IdeaVim.relativeNumbersProvider");
   private static final Key<ExOutputPanel> MORE_PANEL = new Key<ExOutputPanel>("IdeaVim.morePanel");
   private static final Key<ExOutputModel> EX_OUTPUT_MODEL = new Key<ExOutputModel>("IdeaVim.exOutputModel");
   private static final Key<TestInputModel> TEST_INPUT_MODEL = new Key<TestInputModel>("IdeaVim.testInputModel");
   private static final Key<Integer> VISUAL_BLOCK_START = new Key<>("visuaBlockStart");
   private static final Key<Integer> VISUAL_BLOCK_END = new Key<>("visualBlockEnd");
   private static final Key<Integer> VISUAL_BLOCK_OFFSET = new Key<>("visualBlockOffset");
+  private static final Key<VisualBlockSelection> VISUAL_BLOCK_SELECTION = new Key<>("IdeaVim.visualBlockSelection");
   private static final Key<Boolean> IGNORE_NEXT_MOVE = new Key<>("shouldIgnoreNextMove");
   private static final Key<Boolean> IS_KEEPING_VISUAL_OPERATOR_ACTION = new Key<>("isKeepingVisualOperatorAction");
   private static final Key<CommandState.Mode> CHANGE_ACTION_SWITCH_MODE = new Key<>("changeActionSwitchMode");
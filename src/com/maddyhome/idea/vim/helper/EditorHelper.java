@@ -27,7 +27,6 @@ import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.codeStyle.CodeStyleSettings;
 import com.maddyhome.idea.vim.common.CharacterPosition;
@@ -517,7 +516,19 @@ public class EditorHelper {
   }
 
   public static int characterPositionToOffset(@NotNull final Editor editor, @NotNull final CharacterPosition pos) {
-    return editor.getDocument().getLineStartOffset(normalizeLine(editor, pos.line)) + pos.column;
+    return characterPositionToOffset(editor, pos.line, pos.column);
+  }
+
+  /**
+   * Converts a line and character column to a file offset without allocating a position. Tabs count as one column.
+   *
+   * @param editor The editor
+   * @param line   The logical line, normalized to the file
+   * @param column The character column within the line
+   * @return The file offset
+   */
+  public static int characterPositionToOffset(@NotNull final Editor editor, final int line, final int column) {
+    return editor.getDocument().getLineStartOffset(normalizeLine(editor, line)) + column;
   }
 
   @NotNull
@@ -551,22 +562,45 @@ public class EditorHelper {
     final int len = getLineLength(editor, line);
     if(len >= to) return "";
 
+    final StringBuilder res = new StringBuilder(to - len);
+    appendPad(res, to - len, getPadTabSize(editor, context));
+    return res.toString();
+  }
+
+  /**
+   * Gets the tab size to pad lines with, looking up the code style only once for many lines
+   *
+   * @return The tab size or 0 if lines are padded with spaces only
+   */
+  public static int getPadTabSize(@NotNull final Editor editor, @NotNull DataContext context) {
     final VirtualFile virtualFile = EditorData.getVirtualFile(editor);
-    final Project project = PlatformDataKeys.PROJECT.getData(context);
-    final int limit = to - len;
     if (virtualFile != null) {
+      final Project project = PlatformDataKeys.PROJECT.getData(context);
       final FileType fileType = FileTypeManager.getInstance().getFileTypeByFile(virtualFile);
       final CodeStyleSettings settings = project == null ? CodeStyle.getDefaultSettings() : CodeStyle.getSettings(project);
       if (settings.useTabCharacter(fileType)) {
-        final int tabSize = settings.getTabSize(fileType);
-        final int tabsCnt = limit / tabSize;
-        final int spacesCnt = limit % tabSize;
-
-        return StringUtil.repeat("\t", tabsCnt) + StringUtil.repeat(" ", spacesCnt);
+        return settings.getTabSize(fileType);
       }
     }
+    return 0;
+  }
 
-    return StringUtil.repeat(" ", limit);
+  /**
+   * Appends the whitespace that pads a line by the given number of columns
+   *
+   * @param tabSize The tab size as returned by {@link #getPadTabSize(Editor, DataContext)}
+   */
+  public static void appendPad(@NotNull StringBuilder builder, int limit, int tabSize) {
+    int spaces = limit;
+    if (tabSize > 0) {
+      for (int i = limit / tabSize; i > 0; i--) {
+        builder.append('\t');
+      }
+      spaces = limit % tabSize;
+    }
+    for (int i = spaces; i > 0; i--) {
+      builder.append(' ');
+    }
   }
 
   /**
@@ -579,14 +613,30 @@ public class EditorHelper {
   public static List<Caret> getOrderedCaretsList(@NotNull Editor editor, @NotNull CaretOrder order) {
     @NotNull List<Caret> carets = editor.getCaretModel().getAllCarets();
 
-    if (order == CaretOrder.INCREASING_OFFSET) {
-      carets.sort(Comparator.comparingInt(Caret::getOffset));
+    if (order == CaretOrder.NATIVE || carets.size() < 2) {
+      return carets;
     }
-    else if (order == CaretOrder.DECREASING_OFFSET) {
+
+    // The caret model keeps the carets in visual order, which is the offset order unless there is bidi text
+    if (!isSortedByOffset(carets)) {
       carets.sort(Comparator.comparingInt(Caret::getOffset));
+    }
+    if (order == CaretOrder.DECREASING_OFFSET) {
       Collections.reverse(carets);
     }
 
     return carets;
   }
+
+  private static boolean isSortedByOffset(@NotNull List<Caret> carets) {
+    int offset = -1;
+    for (Caret caret : carets) {
+      final int next = caret.getOffset();
+      if (next < offset) {
+        return false;
+      }
+      offset = next;
+    }
+    return true;
+  }
 }
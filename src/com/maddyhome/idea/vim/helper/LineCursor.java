@@ -0,0 +1,194 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.helper;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.CharBuffer;
+
+/**
+ * A mutable cursor over the logical lines of an editor's document.
+ * <p>
+ * The cursor holds the current line number together with its start and end offsets and reads characters straight
+ * from {@link Document#getCharsSequence()}, so walking over a range of lines doesn't allocate a string, buffer or
+ * position object per line. Line numbers follow {@link EditorHelper#getLineCount(Editor)}, i.e. the empty line after
+ * a trailing newline doesn't count. All line and column values are zero based.
+ * <p>
+ * The cursor may be reused after the document has been modified, but the current line has to be re-positioned with
+ * {@link #moveToLine(int)} or {@link #moveToOffset(int)} first.
+ */
+public class LineCursor {
+  @NotNull private final Editor editor;
+  @NotNull private final Document document;
+  private int line = -1;
+  private int start;
+  private int end;
+
+  public LineCursor(@NotNull Editor editor) {
+    this.editor = editor;
+    this.document = editor.getDocument();
+  }
+
+  /**
+   * Positions the cursor on the given logical line.
+   *
+   * @param line The logical line
+   * @return true if the line exists, false if the cursor is now invalid
+   */
+  public boolean moveToLine(int line) {
+    if (line < 0 || line >= getLineCount()) {
+      this.line = -1;
+      return false;
+    }
+
+    this.line = line;
+    start = document.getLineStartOffset(line);
+    end = document.getLineEndOffset(line);
+    return true;
+  }
+
+  /**
+   * Positions the cursor on the line containing the offset. Offsets past the end of the file select the last line.
+   *
+   * @param offset The offset within the file
+   * @return true if the file has any lines, false otherwise
+   */
+  public boolean moveToOffset(int offset) {
+    final int length = document.getTextLength();
+    final int lineCount = getLineCount();
+    if (lineCount == 0) {
+      line = -1;
+      return false;
+    }
+
+    final int line = offset <= 0 ? 0 : document.getLineNumber(Math.min(offset, length));
+    return moveToLine(Math.min(line, lineCount - 1));
+  }
+
+  /**
+   * Moves the cursor to the following line.
+   *
+   * @return true if there is a following line, false if the cursor is now invalid
+   */
+  public boolean next() {
+    return line >= 0 && moveToLine(line + 1);
+  }
+
+  /**
+   * Moves the cursor to the preceding line.
+   *
+   * @return true if there is a preceding line, false if the cursor is now invalid
+   */
+  public boolean previous() {
+    return line >= 0 && moveToLine(line - 1);
+  }
+
+  public boolean isValid() {
+    return line >= 0;
+  }
+
+  public int getLine() {
+    return line;
+  }
+
+  /**
+   * @return The offset of the first character of the current line
+   */
+  public int getStartOffset() {
+    return start;
+  }
+
+  /**
+   * @return The offset just past the last character of the current line, excluding the newline
+   */
+  public int getEndOffset() {
+    return end;
+  }
+
+  /**
+   * @return The number of characters in the current line, excluding the newline
+   */
+  public int getLength() {
+    return end - start;
+  }
+
+  public int getLineCount() {
+    return EditorHelper.getLineCount(editor);
+  }
+
+  @NotNull
+  public CharSequence getChars() {
+    return document.getCharsSequence();
+  }
+
+  /**
+   * @param column The character column within the current line
+   * @return The character or '\0' when the column is past the end of the line
+   */
+  public char charAt(int column) {
+    final int offset = start + column;
+    return column >= 0 && offset < end ? document.getCharsSequence().charAt(offset) : '\u0000';
+  }
+
+  /**
+   * Converts a character column of the current line to a file offset. Tabs count as one column.
+   */
+  public int getOffset(int column) {
+    return start + column;
+  }
+
+  /**
+   * Converts a file offset to a character column of the current line. Tabs count as one column.
+   */
+  public int getColumn(int offset) {
+    return offset - start;
+  }
+
+  /**
+   * @return The offset of the first non-whitespace character in the current line, or the line end if there is none
+   */
+  public int getLeadingCharacterOffset() {
+    final CharSequence chars = document.getCharsSequence();
+    for (int offset = start; offset < end; offset++) {
+      if (!Character.isWhitespace(chars.charAt(offset))) {
+        return offset;
+      }
+    }
+
+    return end;
+  }
+
+  /**
+   * @param allowBlanks If true, lines consisting of whitespace only are empty too
+   * @return true if the current line is empty
+   */
+  public boolean isEmpty(boolean allowBlanks) {
+    return start == end || (allowBlanks && getLeadingCharacterOffset() == end);
+  }
+
+  /**
+   * Wraps the current line, excluding the newline, without copying it.
+   */
+  @NotNull
+  public CharBuffer getBuffer() {
+    return CharBuffer.wrap(document.getCharsSequence(), start, end);
+  }
+}
@@ -28,9 +28,11 @@ public interface Msg {
   String e_argreq = "e_argreq";
   String e_noprev = "e_noprev";
   String e_nopresub = "e_nopresub";
+  String e_noprevre = "e_noprevre";
   String E191 = "E191";
   String e_backrange = "e_backrange";
   String E146 = "E146";
+  String E147 = "E147";
   String e_zerocount = "e_zerocount";
   String e_trailing = "e_trailing";
   String e_invcmd = "e_invcmd";
@@ -70,4 +72,6 @@ public interface Msg {
   String e_patnotf2 = "e_patnotf2";
   String unkopt = "unkopt";
   String e_invarg = "e_invarg";
+  String E39 = "E39";
+  String E104 = "E104";
 }
@@ -72,12 +72,12 @@ public class SearchHelper {
 
   public static int findSection(@NotNull Editor editor, @NotNull Caret caret, char type, int dir, int count) {
     CharSequence chars = editor.getDocument().getCharsSequence();
+    final LineCursor cursor = new LineCursor(editor);
     int line = caret.getLogicalPosition().line + dir;
-    int maxline = EditorHelper.getLineCount(editor);
     int res = -1;
 
-    while (line > 0 && line < maxline && count > 0) {
-      int offset = EditorHelper.getLineStartOffset(editor, line);
+    while (line > 0 && count > 0 && cursor.moveToLine(line)) {
+      int offset = cursor.getStartOffset();
       char ch = chars.charAt(offset);
       if (ch == type || ch == '\u000C') {
         res = offset;
@@ -764,8 +764,12 @@ public class SearchHelper {
   public static TextRange findNumberUnderCursor(@NotNull final Editor editor, @NotNull Caret caret, final boolean alpha,
                                                 final boolean hex, final boolean octal) {
     int lline = caret.getLogicalPosition().line;
-    String text = EditorHelper.getLineText(editor, lline).toLowerCase();
-    int offset = EditorHelper.getLineStartOffset(editor, lline);
+    final LineCursor cursor = new LineCursor(editor);
+    if (!cursor.moveToLine(lline)) {
+      return null;
+    }
+    final CharSequence text = cursor.getBuffer();
+    int offset = cursor.getStartOffset();
     int pos = caret.getOffset() - offset;
 
     if (logger.isDebugEnabled()) {
@@ -804,7 +808,7 @@ public class SearchHelper {
         int end = range.second;
 
         // Ox and OX
-        if (start >= 2 && text.substring(start - 2, start).toLowerCase().equals("0x")) {
+        if (start >= 2 && text.charAt(start - 2) == '0' && "xX".indexOf(text.charAt(start - 1)) >= 0) {
           logger.debug("found hex");
           return new TextRange(start - 2 + offset, end + offset);
         }
@@ -853,11 +857,66 @@ public class SearchHelper {
     return new TextRange(start + offset, end + offset);
   }
 
+  /**
+   * Finds the first number that starts within the range, as the visual mode CTRL-A does.
+   * <p>
+   * The range is scanned once from its start for a digit, or a letter if alpha is set. The kind of the number is
+   * decided by its first characters: 0x followed by a hex digit for hex, a leading zero followed by octal digits only
+   * for octal, and decimal otherwise. A minus sign belongs to a decimal number only if it's within the range too. The
+   * number is cut at the end of the range.
+   *
+   * @param chars The text to search
+   * @param start The start offset of the range
+   * @param end   The end offset of the range, it must not go past the end of the line
+   * @param alpha Whether single letters count as numbers
+   * @param hex   Whether hex numbers are recognized
+   * @param octal Whether octal numbers are recognized
+   * @return The range of the number or null if there is none
+   */
+  @Nullable
+  public static TextRange findNumberInRange(@NotNull CharSequence chars, int start, int end, boolean alpha,
+                                            boolean hex, boolean octal) {
+    int pos = start;
+    while (pos < end && !isNumberChar(chars.charAt(pos), alpha, false, false, true)) {
+      pos++;
+    }
+    if (pos >= end) {
+      return null;
+    }
+
+    final char ch = chars.charAt(pos);
+    if (ch < '0' || ch > '9') {
+      return new TextRange(pos, pos + 1);
+    }
+
+    if (hex && ch == '0' && pos + 2 < end && "xX".indexOf(chars.charAt(pos + 1)) >= 0 &&
+        isNumberChar(chars.charAt(pos + 2), false, true, false, false)) {
+      int numberEnd = pos + 2;
+      while (numberEnd < end && isNumberChar(chars.charAt(numberEnd), false, true, false, false)) {
+        numberEnd++;
+      }
+      return new TextRange(pos, numberEnd);
+    }
+
+    boolean isOctal = octal && ch == '0';
+    int numberEnd = pos;
+    while (numberEnd < end && isNumberChar(chars.charAt(numberEnd), false, false, false, true)) {
+      isOctal &= chars.charAt(numberEnd) <= '7';
+      numberEnd++;
+    }
+    if (isOctal && numberEnd - pos > 1) {
+      return new TextRange(pos, numberEnd);
+    }
+
+    final int numberStart = pos > start && chars.charAt(pos - 1) == '-' ? pos - 1 : pos;
+    return new TextRange(numberStart, numberEnd);
+  }
+
   /**
    * Searches for digits block that matches parameters
    */
   @NotNull
-  private static Pair<Integer, Integer> findRange(@NotNull final String text, final int pos, final boolean alpha,
+  private static Pair<Integer, Integer> findRange(@NotNull final CharSequence text, final int pos, final boolean alpha,
                                                   final boolean hex, final boolean octal, final boolean decimal) {
     int end = pos;
     while (end < text.length() && isNumberChar(text.charAt(end), alpha, hex, octal, decimal)) {
@@ -1791,15 +1850,15 @@ public class SearchHelper {
 
   private static int findNextParagraphLine(@NotNull Editor editor, int line, int dir, boolean allowBlanks,
                                            boolean skipLines) {
-    int maxline = EditorHelper.getLineCount(editor);
+    final LineCursor cursor = new LineCursor(editor);
     int res = -1;
 
-    line = skipEmptyLines(editor, line, dir, allowBlanks);
-    while (line >= 0 && line < maxline && res == -1) {
-      if (EditorHelper.isLineEmpty(editor, line, allowBlanks)) {
+    line = skipEmptyLines(cursor, line, dir, allowBlanks);
+    while (res == -1 && cursor.moveToLine(line)) {
+      if (cursor.isEmpty(allowBlanks)) {
         res = line;
         if (skipLines) {
-          line = skipEmptyLines(editor, line, dir, allowBlanks);
+          line = skipEmptyLines(cursor, line, dir, allowBlanks);
         }
       }
 
@@ -1809,10 +1868,9 @@ public class SearchHelper {
     return res;
   }
 
-  private static int skipEmptyLines(@NotNull Editor editor, int line, int dir, boolean allowBlanks) {
-    int maxline = EditorHelper.getLineCount(editor);
-    while (line >= 0 && line < maxline) {
-      if (!EditorHelper.isLineEmpty(editor, line, allowBlanks)) {
+  private static int skipEmptyLines(@NotNull LineCursor cursor, int line, int dir, boolean allowBlanks) {
+    while (cursor.moveToLine(line)) {
+      if (!cursor.isEmpty(allowBlanks)) {
         return line;
       }
 
@@ -262,6 +262,16 @@ public class StringHelper {
     return builder.toString();
   }
 
+  /**
+   * Converts the beginning of the keys to key notation, cutting the result at maxLength characters. Only the keys
+   * that can fit are converted, so this is cheap even for a huge register.
+   */
+  @NotNull
+  public static String toKeyNotation(@NotNull List<KeyStroke> keys, int maxLength) {
+    final String res = toKeyNotation(keys.size() > maxLength ? keys.subList(0, Math.max(maxLength, 0)) : keys);
+    return res.length() > maxLength ? res.substring(0, Math.max(maxLength, 0)) : res;
+  }
+
   @NotNull
   public static String toKeyNotation(@NotNull KeyStroke key) {
     final char c = key.getKeyChar();
@@ -0,0 +1,104 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.helper;
+
+import com.intellij.openapi.editor.CaretState;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.LogicalPosition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The rectangle of a visual block selection: the line the block was started on, the line of the moving corner and
+ * the column span shared by all the lines in between.
+ * <p>
+ * IntelliJ shows a block selection as one caret per line, and creating the carets is what makes a block over
+ * thousands of lines slow. The block last shown in an editor is kept in this form, so a new block that only adds or
+ * removes a line at the moving corner updates just that line's caret. The carets of a whole block are built in one
+ * batch from {@link #getCaretState(Editor, int)}.
+ */
+public final class VisualBlockSelection {
+  private final int startLine;
+  private final int endLine;
+  private final int startColumn;
+  private final int endColumn;
+  private final boolean toLineEnd;
+  private final long modificationStamp;
+
+  /**
+   * @param start     The offset the block was started at
+   * @param end       The offset of the moving corner
+   * @param toLineEnd True if the block extends to the end of every line, e.g. after $
+   */
+  public VisualBlockSelection(@NotNull Editor editor, int start, int end, boolean toLineEnd) {
+    final LogicalPosition startPosition = editor.offsetToLogicalPosition(start);
+    final LogicalPosition endPosition = editor.offsetToLogicalPosition(end);
+    startLine = startPosition.line;
+    endLine = endPosition.line;
+    startColumn = Math.min(startPosition.column, endPosition.column);
+    endColumn = Math.max(startPosition.column, endPosition.column) + 1;
+    this.toLineEnd = toLineEnd;
+    modificationStamp = editor.getDocument().getModificationStamp();
+  }
+
+  public int getStartLine() {
+    return startLine;
+  }
+
+  public int getEndLine() {
+    return endLine;
+  }
+
+  /**
+   * @return The line following startLine in the direction of endLine
+   */
+  public int getDirection() {
+    return endLine < startLine ? -1 : 1;
+  }
+
+  public int getLineCount() {
+    return Math.abs(endLine - startLine) + 1;
+  }
+
+  /**
+   * @return True if the other block covers the same columns of the same unmodified document and starts on the same
+   * line, so the two differ only in the lines at the moving corner
+   */
+  public boolean hasSameColumns(@Nullable VisualBlockSelection other) {
+    return other != null && other.startLine == startLine && other.startColumn == startColumn &&
+           other.endColumn == endColumn && other.toLineEnd == toLineEnd &&
+           other.modificationStamp == modificationStamp;
+  }
+
+  /**
+   * Gets the selection and caret position of the block on the given line. Lines shorter than the block get an empty
+   * selection at their end, and the caret is on the last selected character.
+   */
+  @NotNull
+  public CaretState getCaretState(@NotNull Editor editor, int line) {
+    final int lineStart = EditorHelper.getLineStartOffset(editor, line);
+    final int lineEnd = EditorHelper.getLineEndOffset(editor, line, true);
+    final int selectionStart = Math.min(editor.logicalPositionToOffset(new LogicalPosition(line, startColumn)), lineEnd);
+    final int selectionEnd = toLineEnd ? lineEnd :
+                             Math.min(editor.logicalPositionToOffset(new LogicalPosition(line, endColumn)), lineEnd);
+    final int caretOffset = lineEnd > lineStart ? Math.max(selectionEnd - 1, lineStart) : lineStart;
+    return new CaretState(editor.offsetToLogicalPosition(caretOffset), editor.offsetToLogicalPosition(selectionStart),
+                          editor.offsetToLogicalPosition(selectionEnd));
+  }
+}
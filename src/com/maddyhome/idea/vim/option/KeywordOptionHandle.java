@@ -0,0 +1,52 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.option;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A handle for the 'iskeyword' option, see {@link OptionHandle}. The keyword characters below 256 are kept in a
+ * table, so classifying a character is a single array lookup.
+ */
+public final class KeywordOptionHandle extends OptionHandle<KeywordOption> {
+  private static final int TABLE_SIZE = 256;
+
+  @NotNull private volatile boolean[] keywords = new boolean[TABLE_SIZE];
+
+  public KeywordOptionHandle(@NotNull String name) {
+    super(name, KeywordOption.class);
+  }
+
+  /**
+   * @see KeywordOption#isKeyword(char)
+   */
+  public boolean isKeyword(char c) {
+    resolve();
+    return c >= TABLE_SIZE || keywords[c];
+  }
+
+  @Override
+  protected void update(@NotNull KeywordOption option) {
+    final boolean[] res = new boolean[TABLE_SIZE];
+    for (char c = 0; c < TABLE_SIZE; c++) {
+      res[c] = option.isKeyword(c);
+    }
+    keywords = res;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.option;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A handle for a numeric option, see {@link OptionHandle}
+ */
+public final class NumberOptionHandle extends OptionHandle<NumberOption> {
+  private volatile int value;
+
+  public NumberOptionHandle(@NotNull String name) {
+    super(name, NumberOption.class);
+  }
+
+  public int value() {
+    resolve();
+    return value;
+  }
+
+  @Override
+  protected void update(@NotNull NumberOption option) {
+    value = option.value();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.option;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A typed handle for an option, meant to be kept in a field of the code that reads the option on every motion or
+ * keystroke.
+ * <p>
+ * The option is looked up by name only once, when the handle is first used, so handles may be created before the
+ * options are. After that the handle keeps the value in a volatile field of its own, updated by an
+ * {@link OptionChangeListener}, and reading it doesn't go through the option tables again.
+ */
+public abstract class OptionHandle<T extends Option> implements OptionChangeListener {
+  @NotNull private final String name;
+  @NotNull private final Class<T> type;
+  @Nullable private volatile T option = null;
+
+  protected OptionHandle(@NotNull String name, @NotNull Class<T> type) {
+    this.name = name;
+    this.type = type;
+  }
+
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Looks the option up on the first call, subclasses call it before returning their cached value
+   */
+  protected final void resolve() {
+    if (option == null) {
+      lookUp();
+    }
+  }
+
+  private synchronized void lookUp() {
+    if (option != null) {
+      return;
+    }
+    final Option res = Options.getInstance().getOption(name);
+    if (!type.isInstance(res)) {
+      throw new IllegalArgumentException("Unknown option or wrong option type: " + name);
+    }
+    final T typed = type.cast(res);
+    typed.addOptionChangeListener(this);
+    update(typed);
+    option = typed;
+  }
+
+  @Override
+  public final void valueChange(OptionChangeEvent event) {
+    final T res = option;
+    if (res != null) {
+      update(res);
+    }
+  }
+
+  /**
+   * Copies the current value of the option into the handle
+   */
+  protected abstract void update(@NotNull T option);
+}
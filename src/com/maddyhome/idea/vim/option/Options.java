@@ -450,6 +450,7 @@ public class Options {
     addOption(new NumberOption("history", "hi", 20, 1, Integer.MAX_VALUE));
     addOption(new ToggleOption("hlsearch", "hls", false));
     addOption(new ToggleOption("ignorecase", "ic", false));
+    addOption(new ToggleOption("joinspaces", "js", true));
     addOption(new ListOption("matchpairs", "mps", new String[]{"(:)", "{:}", "[:]"}, ".:."));
     addOption(new ToggleOption("more", "more", true));
     addOption(new BoundListOption("nrformats", "nf", new String[]{"octal", "hex"}, new String[]{"octal", "hex", "alpha"}));
@@ -470,7 +471,7 @@ public class Options {
     addOption(new ListOption(CLIPBOARD, "cb", new String[]{"autoselect,exclude:cons\\|linux"}, null));
     addOption(new ToggleOption(INCREMENTAL_SEARCH, "is", false));
     addOption(new ToggleOption(TIMEOUT, "to", true));
-    addOption(new ListOption(VIMINFO, "vi", new String[]{"'100", "<50", "s10", "h"}, null));
+    addOption(new ViminfoOption(VIMINFO, "vi", new String[]{"'100", "<50", "s10", "h"}));
     addOption(new KeywordOption("iskeyword", "isk", new String[]{"@", "48-57", "_"}));
 
     registerExtensionOptions();
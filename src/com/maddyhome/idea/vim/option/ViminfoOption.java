@@ -0,0 +1,67 @@
+/*
+ * IdeaVim - Vim emulator for IDEs based on the IntelliJ platform
+ * Copyright (C) 2003-2018 The IdeaVim authors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.maddyhome.idea.vim.option;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The 'viminfo' option. Its items limit the state that is saved between restarts, see :help 'viminfo'.
+ */
+public class ViminfoOption extends ListOption {
+  ViminfoOption(@NotNull String name, @NotNull String abbrev, @NotNull String[] dflt) {
+    super(name, abbrev, dflt, null);
+  }
+
+  /**
+   * Gets the value of a numeric item, e.g. 100 for '100
+   *
+   * @param item The character the item starts with
+   * @param dflt The value to use if the item isn't set or isn't a number
+   * @return The value of the item
+   */
+  public int getNumber(char item, int dflt) {
+    final List<String> values = values();
+    if (values == null) {
+      return dflt;
+    }
+    for (String value : values) {
+      if (value.length() > 1 && value.charAt(0) == item) {
+        try {
+          return Integer.parseInt(value.substring(1));
+        }
+        catch (NumberFormatException e) {
+          return dflt;
+        }
+      }
+    }
+    return dflt;
+  }
+
+  /**
+   * Gets the value of a numeric item of the current 'viminfo' option
+   *
+   * @see #getNumber(char, int)
+   */
+  public static int getItem(char item, int dflt) {
+    final Option option = Options.getInstance().getOption(Options.VIMINFO);
+    return option instanceof ViminfoOption ? ((ViminfoOption)option).getNumber(item, dflt) : dflt;
+  }
+}
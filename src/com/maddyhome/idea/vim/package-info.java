@@ -490,12 +490,14 @@
  *
  * |v_CTRL-\_CTRL-N|      {@link com.maddyhome.idea.vim.action.motion.visual.VisualExitModeAction}
  * |v_CTRL-\_CTRL-G|      TODO
+ * |v_CTRL-A|             {@link com.maddyhome.idea.vim.action.change.change.ChangeVisualNumberIncAction}
  * |v_CTRL-C|             {@link com.maddyhome.idea.vim.action.motion.visual.VisualExitModeAction}
  * |v_CTRL-G|             TODO
  * |v_<BS>|               NVO mapping
  * |v_CTRL-H|             NVO mapping
  * |v_CTRL-O|             TODO
  * |v_CTRL-V|             NVO mapping
+ * |v_CTRL-X|             {@link com.maddyhome.idea.vim.action.change.change.ChangeVisualNumberDecAction}
  * |v_<Esc>|              {@link com.maddyhome.idea.vim.action.motion.visual.VisualExitModeAction}
  * |v_CTRL-]|             TODO
  * |v_!|                  {@link com.maddyhome.idea.vim.action.change.change.FilterVisualLinesAction}
@@ -537,6 +539,8 @@
  * |v_a}|                 {@link com.maddyhome.idea.vim.action.motion.object.MotionOuterBlockBraceAction}
  * |v_c|                  {@link com.maddyhome.idea.vim.action.change.change.ChangeVisualAction}
  * |v_d|                  {@link com.maddyhome.idea.vim.action.change.delete.DeleteVisualAction}
+ * |v_g_CTRL-A|           {@link com.maddyhome.idea.vim.action.change.change.ChangeVisualNumberAvalancheIncAction}
+ * |v_g_CTRL-X|           {@link com.maddyhome.idea.vim.action.change.change.ChangeVisualNumberAvalancheDecAction}
  * |v_gJ|                 {@link com.maddyhome.idea.vim.action.change.delete.DeleteJoinVisualLinesAction}
  * |v_gq|                 {@link com.maddyhome.idea.vim.action.change.change.ReformatCodeVisualAction}
  * |v_gv|                 {@link com.maddyhome.idea.vim.action.motion.visual.VisualSwapSelectionsAction}
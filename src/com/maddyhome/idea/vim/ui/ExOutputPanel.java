@@ -31,12 +31,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.text.DefaultCaret;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -52,6 +54,8 @@ public class ExOutputPanel extends JPanel {
   @NotNull private final ComponentAdapter myAdapter;
   private boolean myAtEnd = false;
   private int myLineHeight = 0;
+  @Nullable private Iterator<String> myRows = null;
+  private int myRowCount = 0;
 
   @Nullable private JComponent myOldGlass = null;
   @Nullable private LayoutManager myOldLayout = null;
@@ -79,6 +83,8 @@ public class ExOutputPanel extends JPanel {
     setBackground(myText.getBackground());
 
     myText.setEditable(false);
+    // Rows appended while paging must not move the caret, or the text area would scroll to them
+    ((DefaultCaret)myText.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
 
     setBorder(BorderFactory.createEtchedBorder());
 
@@ -109,6 +115,8 @@ public class ExOutputPanel extends JPanel {
       data = data.substring(0, data.length() - 1);
     }
 
+    myRows = null;
+    myRowCount = 0;
     myText.setText(data);
     myText.setCaretPosition(0);
     if (data.length() > 0) {
@@ -116,12 +124,26 @@ public class ExOutputPanel extends JPanel {
     }
   }
 
+  /**
+   * Shows the rows of a listing. Only the rows needed to fill the panel are taken from the iterator, the following
+   * ones are appended as the user scrolls down.
+   */
+  public void setRows(@NotNull Iterator<String> rows) {
+    myRows = rows.hasNext() ? rows : null;
+    myRowCount = 0;
+    myText.setText("");
+    if (myRows != null) {
+      activate();
+    }
+  }
+
   /**
    * Turns off the ex entry field and optionally puts the focus back to the original component
    */
   public void deactivate(boolean refocusOwningEditor) {
     if (!myActive) return;
     myActive = false;
+    myRows = null;
     myText.setText("");
     if (refocusOwningEditor) {
       UiHelper.requestFocus(myEditor.getContentComponent());
@@ -185,6 +207,28 @@ public class ExOutputPanel extends JPanel {
     return count;
   }
 
+  /**
+   * Appends the next rows of the listing, if there are any left
+   */
+  private void appendRows(int count) {
+    if (myRows == null || count <= 0) {
+      return;
+    }
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count && myRows.hasNext(); i++, myRowCount++) {
+      if (myRowCount > 0) {
+        builder.append('\n');
+      }
+      builder.append(myRows.next());
+    }
+    if (!myRows.hasNext()) {
+      myRows = null;
+    }
+    myText.append(builder.toString());
+    // Update the scroll bar range right away, it is checked as soon as the rows are appended
+    myScrollPane.validate();
+  }
+
   private void scrollLine() {
     scrollOffset(myLineHeight);
   }
@@ -215,6 +259,11 @@ public class ExOutputPanel extends JPanel {
   private void scrollOffset(int more) {
     myAtEnd = false;
     int val = myScrollPane.getVerticalScrollBar().getValue();
+    if (myRows != null && myLineHeight > 0) {
+      // Keep a row past the visible ones so we aren't at the end while there are still rows to show
+      final int needed = (val + more + myScrollPane.getVerticalScrollBar().getVisibleAmount()) / myLineHeight + 1;
+      appendRows(needed - myRowCount);
+    }
     myScrollPane.getVerticalScrollBar().setValue(val + more);
     myScrollPane.getHorizontalScrollBar().setValue(0);
     if (val + more >=
@@ -233,8 +282,14 @@ public class ExOutputPanel extends JPanel {
     setSize(scroll.getSize());
 
     myLineHeight = myText.getFontMetrics(myText.getFont()).getHeight();
-    int count = countLines(myText.getText());
     int visLines = getSize().height / myLineHeight - 1;
+    if (!Options.getInstance().isSet("more")) {
+      appendRows(Integer.MAX_VALUE);
+    }
+    else {
+      appendRows(visLines + 1 - myRowCount);
+    }
+    int count = myRowCount > 0 ? myRowCount : countLines(myText.getText());
     int lines = Math.min(count, visLines);
     setSize(getSize().width, lines * myLineHeight + myLabel.getPreferredSize().height +
                              getBorder().getBorderInsets(this).top * 2);
@@ -1,6 +1,9 @@
 package org.jetbrains.plugins.ideavim.action;
 
+import com.intellij.openapi.util.text.StringUtil;
 import com.maddyhome.idea.vim.VimPlugin;
+import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.ToggleOption;
 import org.jetbrains.plugins.ideavim.VimTestCase;
 
 import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
@@ -73,6 +76,18 @@ public class ChangeActionTest extends VimTestCase {
     doTest(parseKeys("guw"), "<caret>FooBar Baz\n", "foobar Baz\n");
   }
 
+  public void testChangeUpperCaseNonAscii() {
+    doTest(parseKeys("gUw"), "<caret>\u00e4rger Baz\n", "\u00c4RGER Baz\n");
+  }
+
+  public void testToggleCaseVisualBlock() {
+    doTest(parseKeys("<C-V>", "lj", "~"),
+           "<caret>fooBar\n" +
+           "FOobar\n",
+           "FOoBar\n" +
+           "foobar\n");
+  }
+
   public void testToggleCaseVisual() {
     doTest(parseKeys("ve~"), "<caret>FooBar Baz\n", "fOObAR Baz\n");
   }
@@ -85,6 +100,12 @@ public class ChangeActionTest extends VimTestCase {
     doTest(parseKeys("veu"), "<caret>FooBar Baz\n", "foobar Baz\n");
   }
 
+  public void testChangeUpperCaseLongerThanOneReplacement() {
+    doTest(parseKeys("gUG"),
+           "<caret>" + StringUtil.repeat("foo Bar\n", 30000),
+           StringUtil.repeat("FOO BAR\n", 30000));
+  }
+
   // VIM-85 |i| |gi| |gg|
   public void testInsertAtPreviousAction() {
     doTest(parseKeys("i", "hello", "<Esc>", "gg", "gi", " world! "), "one\n" +
@@ -273,6 +294,28 @@ public class ChangeActionTest extends VimTestCase {
            "quux spam eggs\n");
   }
 
+  // |CTRL-V| |v_b_A|
+  public void testAppendVisualBlockPadsShortLines() {
+    doTest(parseKeys("<C-V>", "jjll", "A", "!", "<Esc>"),
+           "<caret>foo\n" +
+           "x\n" +
+           "bar\n",
+           "foo!\n" +
+           "x  !\n" +
+           "bar!\n");
+  }
+
+  // |CTRL-V| |v_b_A|
+  public void testAppendVisualBlockToLineEnds() {
+    doTest(parseKeys("<C-V>", "jj$", "A", "!", "<Esc>"),
+           "<caret>foo\n" +
+           "x\n" +
+           "quux\n",
+           "foo!\n" +
+           "x!\n" +
+           "quux!\n");
+  }
+
   // VIM-632 |CTRL-V| |v_d|
   public void testDeleteVisualBlock() {
     doTest(parseKeys("<C-V>", "jjl", "d"),
@@ -333,6 +376,38 @@ public class ChangeActionTest extends VimTestCase {
            "foo  bar");
   }
 
+  public void testDeleteJoinLinesEmptyLine() {
+    doTest(parseKeys("J"),
+           "foo\n" +
+           "\n" +
+           "bar",
+           "foo\n" +
+           "bar");
+  }
+
+  public void testDeleteJoinLinesClosingParenthesis() {
+    doTest(parseKeys("J"),
+           "foo(\n" +
+           "    )",
+           "foo()");
+  }
+
+  public void testDeleteJoinLinesJoinSpaces() {
+    doTest(parseKeys("3J"),
+           "Foo.\n" +
+           "Bar!\n" +
+           "baz",
+           "Foo.  Bar!  baz");
+  }
+
+  public void testDeleteJoinLinesNoJoinSpaces() {
+    ((ToggleOption)Options.getInstance().getOption("joinspaces")).reset();
+    doTest(parseKeys("J"),
+           "Foo.\n" +
+           "bar",
+           "Foo. bar");
+  }
+
   public void testDeleteJoinVisualLinesSpaces() {
     doTest(parseKeys("v2jJ"),
            "    a<caret> 1\n" +
@@ -470,6 +545,15 @@ public class ChangeActionTest extends VimTestCase {
            "ZZZZZz\n");
   }
 
+  // |r|
+  public void testReplaceVisualBlock() {
+    doTest(parseKeys("<C-V>", "lj", "rZ"),
+           "f<caret>Zobar\n" +
+           "fooZaz\n",
+           "fZZbar\n" +
+           "fZZZaz\n");
+  }
+
   // |r|
   public void testReplaceOneCharWithNewline() {
     doTest(parseKeys("r<Enter>"),
@@ -543,6 +627,22 @@ public class ChangeActionTest extends VimTestCase {
            "fo<caret>o quux\n");
   }
 
+  // |.|
+  public void testRepeatWithCountAfterBackspace() {
+    doTest(parseKeys("A", "ab<BS>c", "<Esc>", "3."),
+           "<caret>x\n",
+           "xacacacac\n");
+  }
+
+  // |R| |.|
+  public void testRepeatReplace() {
+    doTest(parseKeys("R", "ab", "<Esc>", "j0", "."),
+           "<caret>xyz\n" +
+           "uvw\n",
+           "abz\n" +
+           "abw\n");
+  }
+
   // VIM-511 |.|
   public void testRepeatWithParensAndQuotesAutoInsertion() {
     configureByJavaText("class C <caret>{\n" +
@@ -119,4 +119,39 @@ public class ChangeNumberActionTest extends VimTestCase {
   public void testIncrementLocatesNumberOnTheSameLine() {
     doTest(parseKeys("<C-A>"), "foo ->* bar 123\n", "foo ->* bar 12<caret>4\n");
   }
+
+  // |v_CTRL-A|
+  public void testVisualIncrementEachLine() {
+    doTest(parseKeys("Vjj<C-A>"), "1\n2\nfoo 3 4\n", "2\n3\nfoo 4 4\n");
+  }
+
+  // |v_CTRL-X|
+  public void testVisualDecrementWithCount() {
+    doTest(parseKeys("Vj5<C-X>"), "10\n-1\n", "5\n-6\n");
+  }
+
+  // |v_CTRL-A|
+  public void testVisualIncrementStartsAtSelection() {
+    doTest(parseKeys("v$<C-A>"), "foo 1 <caret>bar 2\n", "foo 1 bar 3\n");
+  }
+
+  // |v_CTRL-A|
+  public void testVisualIncrementIgnoresMinusBeforeSelection() {
+    doTest(parseKeys("v$<C-A>"), "foo -<caret>5\n", "foo -6\n");
+  }
+
+  // |v_CTRL-A|
+  public void testVisualIncrementHexAndOctal() {
+    doTest(parseKeys("Vj<C-A>"), "0x0f\n007\n", "0x10\n010\n");
+  }
+
+  // |v_g_CTRL-A|
+  public void testVisualProgressiveIncrement() {
+    doTest(parseKeys("VG", "g<C-A>"), "0\n0\nfoo\n0\n", "1\n2\nfoo\n3\n");
+  }
+
+  // |v_g_CTRL-X|
+  public void testVisualProgressiveDecrementWithCount() {
+    doTest(parseKeys("Vj", "2g<C-X>"), "10\n10\n", "8\n6\n");
+  }
 }
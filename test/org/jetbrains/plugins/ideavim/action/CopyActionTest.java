@@ -117,6 +117,29 @@ public class CopyActionTest extends VimTestCase {
     assertOffset(2);
   }
 
+  // |CTRL-V| |v_y| |p|
+  public void testPutVisualBlockPadsShortLines() {
+    typeTextInFile(parseKeys("<C-V>", "jl", "y", "jj$", "p"),
+                   "<caret>ab\n" +
+                   "cd\n" +
+                   "efgh\n" +
+                   "i\n");
+    myFixture.checkResult("ab\n" +
+                          "cd\n" +
+                          "efghab\n" +
+                          "i   cd\n");
+  }
+
+  // |CTRL-V| |v_y| |p|
+  public void testPutVisualBlockAddsMissingLines() {
+    typeTextInFile(parseKeys("<C-V>", "jl", "y", "jp"),
+                   "<caret>ab\n" +
+                   "cd\n");
+    myFixture.checkResult("ab\n" +
+                          "cabd\n" +
+                          " cd\n");
+  }
+
   // VIM-632 |CTRL-V| |v_y|
   public void testStateAfterYankVisualBlock() {
     typeTextInFile(parseKeys("<C-V>", "jl", "y"),
@@ -178,4 +201,24 @@ public class CopyActionTest extends VimTestCase {
     typeTextInFile(parseKeys("\"ap"), "");
     myFixture.checkResult("test");
   }
+
+  // |p|
+  public void testPutCharacterWiseWithCount() {
+    typeTextInFile(parseKeys("yl", "3p"),
+                   "<caret>ab\n");
+    myFixture.checkResult("aaaab\n");
+  }
+
+  // |CTRL-V| |y| |p|
+  public void testPutBlockWiseWithCountPadsShortLines() {
+    typeTextInFile(parseKeys("<C-V>jly", "jj$", "2p"),
+                   "<caret>ab\n" +
+                   "cd\n" +
+                   "xyz\n" +
+                   "w\n");
+    myFixture.checkResult("ab\n" +
+                          "cd\n" +
+                          "xyzabab\n" +
+                          "w  cdcd\n");
+  }
 }
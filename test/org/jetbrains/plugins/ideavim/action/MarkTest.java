@@ -1,9 +1,15 @@
 package org.jetbrains.plugins.ideavim.action;
 
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
 import com.maddyhome.idea.vim.VimPlugin;
+import com.maddyhome.idea.vim.common.Jump;
 import com.maddyhome.idea.vim.common.Mark;
+import com.maddyhome.idea.vim.helper.EditorData;
 import org.jetbrains.plugins.ideavim.VimTestCase;
 
+import java.util.List;
+
 import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
 
 /**
@@ -155,4 +161,36 @@ public class MarkTest extends VimTestCase {
                                                      "four five\n");
     assertOffset(14);
   }
+
+  // |jumplist|
+  public void testJumpToSameLineReplacesOlderJump() {
+    typeTextInFile(parseKeys("G", "gg", "G"), "<caret>one\n" +
+                                              "two\n" +
+                                              "three\n");
+    final String filename = EditorData.getVirtualFile(myFixture.getEditor()).getPath();
+    int firstLineJumps = 0;
+    for (Jump jump : VimPlugin.getMark().getJumps()) {
+      if (filename.equals(jump.getFilename()) && jump.getLogicalLine() == 0) {
+        firstLineJumps++;
+      }
+    }
+    assertEquals(1, firstLineJumps);
+    final List<Jump> jumps = VimPlugin.getMark().getJumps();
+    assertEquals(0, jumps.get(jumps.size() - 1).getLogicalLine());
+  }
+
+  public void testSavedStateChangesOnlyWhenMarksMove() {
+    // A file name no other test uses, so the file starts without marks
+    myFixture.configureByText("marks-state.txt", "one\n" +
+                                                 "<caret>two\n");
+    final Document document = myFixture.getEditor().getDocument();
+    long count = VimPlugin.getMark().getStateTracker().getModificationCount();
+    WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> document.insertString(0, "zero\n"));
+    assertEquals(count, VimPlugin.getMark().getStateTracker().getModificationCount());
+
+    typeText(parseKeys("ma"));
+    count = VimPlugin.getMark().getStateTracker().getModificationCount();
+    WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> document.insertString(0, "zero\n"));
+    assertTrue(count < VimPlugin.getMark().getStateTracker().getModificationCount());
+  }
 }
@@ -1075,6 +1075,32 @@ public class MotionActionTest extends VimTestCase {
                           "a<selection>b</selection>\n");
   }
 
+  // |CTRL-V|
+  public void testVisualBlockSelectionGrowsAndShrinksByLines() {
+    typeTextInFile(parseKeys("<C-V>ljjjk"),
+                   "<caret>foo\n" +
+                   "bar\n" +
+                   "baz\n" +
+                   "qux\n");
+    myFixture.checkResult("<selection>fo</selection>o\n" +
+                          "<selection>ba</selection>r\n" +
+                          "<selection>ba</selection>z\n" +
+                          "qux\n");
+    assertEquals(3, myFixture.getEditor().getCaretModel().getCaretCount());
+  }
+
+  // |CTRL-V|
+  public void testVisualBlockSelectionOverShortLine() {
+    typeTextInFile(parseKeys("<C-V>llj"),
+                   "<caret>foo\n" +
+                   "b\n" +
+                   "bar\n");
+    typeText(parseKeys("j"));
+    myFixture.checkResult("<selection>foo</selection>\n" +
+                          "<selection>b</selection>\n" +
+                          "<selection>bar</selection>\n");
+  }
+
   // |v_o|
   public void testSwapVisualSelectionEnds() {
     typeTextInFile(parseKeys("v", "l", "o", "l", "d"),
@@ -931,6 +931,12 @@ public class MultipleCaretsTest extends VimTestCase {
     myFixture.checkResult("OnE twO Th<caret>rEe<caret> FoUr<caret> fIvE\n");
   }
 
+  public void testChangeCaseToggleCharacterActionWithSeparateCarets() {
+    typeTextInFile(parseKeys("2~"),
+                   "<caret>one <caret>two <caret>three\n");
+    myFixture.checkResult("ON<caret>e TW<caret>o TH<caret>ree\n");
+  }
+
   public void testChangeCaseToggleMotionAction() {
     typeTextInFile(parseKeys("g~e"),
                    "<caret>capitalize <caret>UNCAPITALIZE<caret> <caret>sTaY\n");
@@ -955,6 +961,20 @@ public class MultipleCaretsTest extends VimTestCase {
     myFixture.checkResult("O<caret>NCE THIS TEXT WILL N<caret>OT LOOK S<caret>O RIDICULOUS\n");
   }
 
+  public void testChangeCaseUpperVisualLineAction() {
+    typeTextInFile(parseKeys("VU"),
+                   "o<caret>ne\n" +
+                   "two\n" +
+                   "th<caret>ree\n" +
+                   "four\n" +
+                   "f<caret>ive\n");
+    myFixture.checkResult("<caret>ONE\n" +
+                          "two\n" +
+                          "<caret>THREE\n" +
+                          "four\n" +
+                          "<caret>FIVE\n");
+  }
+
   public void testChangeCharacterAction() {
     typeTextInFile(parseKeys("rz"), "on<caret>e <caret>t<caret>w<caret>o th<caret>r<caret>ee");
     myFixture.checkResult("on<caret>z <caret>z<caret>z<caret>z th<caret>z<caret>ze");
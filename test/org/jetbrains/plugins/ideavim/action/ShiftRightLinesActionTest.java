@@ -82,4 +82,16 @@ public class ShiftRightLinesActionTest extends VimTestCase {
     typeText(parseKeys("<C-V>jjl>"));
     myFixture.checkResult("foo    foo\nfoo    bar\nfoo    baz\n");
   }
+
+  public void testShiftsWholeFileRange() {
+    myFixture.configureByText("a.txt", "<caret>a\n  b\n\nc\n");
+    typeText(commandToKeys("%>"));
+    myFixture.checkResult("    a\n      b\n\n    c\n");
+  }
+
+  public void testShiftsLeftWholeFileRange() {
+    myFixture.configureByText("a.txt", "<caret>    a\n      b\n c\nd\n");
+    typeText(commandToKeys("%<"));
+    myFixture.checkResult("a\n  b\nc\nd\n");
+  }
 }
@@ -0,0 +1,85 @@
+package org.jetbrains.plugins.ideavim.ex;
+
+import org.jetbrains.plugins.ideavim.VimTestCase;
+
+import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
+
+public class GlobalCommandTest extends VimTestCase {
+  // |:global|
+  public void testDeleteEmptyLines() {
+    doTest("g/^$/d",
+           "<caret>one\n" +
+           "\n" +
+           "\n" +
+           "two\n" +
+           "\n" +
+           "three\n",
+           "one\n" +
+           "two\n" +
+           "three\n");
+  }
+
+  // |:vglobal|
+  public void testDeleteNotMatchingLines() {
+    doTest("v/o/d",
+           "<caret>one\n" +
+           "two\n" +
+           "three\n" +
+           "four\n",
+           "one\n" +
+           "two\n" +
+           "four\n");
+  }
+
+  // |:global|
+  public void testInvertedWithRange() {
+    doTest("2,3g!/e/d",
+           "<caret>one\n" +
+           "two\n" +
+           "six\n" +
+           "ten\n",
+           "one\n" +
+           "ten\n");
+  }
+
+  // |:global|
+  public void testSubstituteWithLastPattern() {
+    doTest("g/a/s//b/g",
+           "<caret>aa\n" +
+           "cc\n" +
+           "ca\n",
+           "bb\n" +
+           "cc\n" +
+           "cb\n");
+  }
+
+  // |:global|
+  public void testJoinSkipsJoinedLines() {
+    doTest("g/^/j",
+           "<caret>a\n" +
+           "b\n" +
+           "c\n" +
+           "d\n",
+           "a b\n" +
+           "c d\n");
+  }
+
+  // |:global|
+  public void testUndoAsOneChange() {
+    configureByText("<caret>a\n" +
+                    "b\n" +
+                    "a\n");
+    typeText(commandToKeys("g/a/d"));
+    myFixture.checkResult("b\n");
+    typeText(parseKeys("u"));
+    myFixture.checkResult("a\n" +
+                          "b\n" +
+                          "a\n");
+  }
+
+  private void doTest(final String command, String before, String after) {
+    myFixture.configureByText("a.java", before);
+    typeText(commandToKeys(command));
+    myFixture.checkResult(after);
+  }
+}
@@ -2,6 +2,8 @@ package org.jetbrains.plugins.ideavim.ex;
 
 import org.jetbrains.plugins.ideavim.VimTestCase;
 
+import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
+
 /**
  * @author Tuomas Tynkkynen
  */
@@ -18,6 +20,14 @@ public class RangeTest extends VimTestCase {
     myFixture.checkResult("1\n2\n4\n5\n");
   }
 
+  public void testRepeatedCommandUsesCurrentLine() {
+    myFixture.configureByText("a.txt", "1\n2\n<caret>3\n4\n5\n");
+    typeText(commandToKeys(".d"));
+    typeText(parseKeys("j"));
+    typeText(commandToKeys(".d"));
+    myFixture.checkResult("1\n2\n4\n");
+  }
+
   public void testLastLine() {
     myFixture.configureByText("a.txt", "1\n2\n3\n4\n5\n");
     typeText(commandToKeys("$s/5/x/"));
@@ -1,6 +1,13 @@
 package org.jetbrains.plugins.ideavim.ex;
 
+import com.intellij.openapi.util.text.StringUtil;
 import com.maddyhome.idea.vim.command.CommandState;
+import com.maddyhome.idea.vim.ex.CommandHandler;
+import com.maddyhome.idea.vim.ex.CommandName;
+import com.maddyhome.idea.vim.ex.CommandParser;
+import com.maddyhome.idea.vim.ex.ExException;
+import com.maddyhome.idea.vim.ex.ExOutputModel;
+import com.maddyhome.idea.vim.ex.handler.SortHandler;
 import org.jetbrains.plugins.ideavim.VimTestCase;
 
 import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
@@ -94,4 +101,63 @@ public class VariousCommandsTest extends VimTestCase {
                           "a/*bc*/de\n" +
                           "-----");
   }
+
+  public void testHandlersAreCreatedOnFirstUse() throws ExException {
+    final CommandParser parser = CommandParser.getInstance();
+    final CommandHandler handler = parser.getCommandHandler(parser.parse("sor"));
+    assertInstanceOf(handler, SortHandler.class);
+    assertSame(handler, parser.getCommandHandler(parser.parse("sort")));
+  }
+
+  public void testHandlersMatchTheirNames() throws ExException {
+    final CommandParser parser = CommandParser.getInstance();
+    for (String command : new String[]{"s", "se", "sor", "x", "xa", "wq", "wN", "k", "marks", "<<", "nnoremap"}) {
+      final CommandHandler handler = parser.getCommandHandler(parser.parse(command));
+      assertNotNull(command, handler);
+      boolean found = false;
+      for (CommandName name : handler.getNames()) {
+        final String full = name.getRequired() + name.getOptional();
+        found |= command.startsWith(name.getRequired()) && full.startsWith(command);
+      }
+      assertTrue(command, found);
+    }
+  }
+
+  // |:registers|
+  public void testRegistersCutsLongValues() {
+    configureByText("<caret>" + StringUtil.repeat("x", 5000) + "\n");
+    typeText(parseKeys("\"ay$"));
+    typeText(commandToKeys("registers"));
+    final ExOutputModel model = ExOutputModel.getInstance(myFixture.getEditor());
+    final String output = model.getText();
+    assertNotNull(output);
+    assertTrue(output.startsWith("--- Registers ---\n"));
+    final String row = "\"a   " + StringUtil.repeat("x", model.getWidth() - 6) + "\n";
+    assertTrue(output.contains(row));
+  }
+
+  // |:marks|
+  public void testMarksListsLineText() {
+    configureByText("one\n" +
+                    "  <caret>two\n");
+    typeText(parseKeys("mb"));
+    typeText(commandToKeys("marks"));
+    assertExOutput("mark  line  col file/text\n" +
+                   " b       2    3 two\n");
+  }
+
+  // |:digraphs|
+  public void testUserDefinedDigraphs() {
+    configureByText("<caret>\n");
+    typeText(commandToKeys("digraphs x1 9731 x2 9733"));
+    typeText(parseKeys("i<C-K>x1<C-K>2x<Esc>"));
+    myFixture.checkResult("\u2603\u2605\n");
+  }
+
+  // |:digraphs| |i_CTRL-K|
+  public void testDigraphInReversedOrder() {
+    configureByText("<caret>\n");
+    typeText(parseKeys("i<C-K>O:<C-K>:O<Esc>"));
+    myFixture.checkResult("\u00d6\u00d6\n");
+  }
 }
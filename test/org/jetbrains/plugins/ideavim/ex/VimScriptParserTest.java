@@ -1,7 +1,13 @@
 package org.jetbrains.plugins.ideavim.ex;
 
+import com.intellij.openapi.util.io.FileUtil;
+import com.maddyhome.idea.vim.ex.vimscript.VimScript;
+import com.maddyhome.idea.vim.ex.vimscript.VimScriptParser;
 import org.jetbrains.plugins.ideavim.VimTestCase;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * @author vlan
  */
@@ -18,4 +24,73 @@ public class VimScriptParserTest extends VimTestCase {
     typeText(commandToKeys("echo s"));
     assertExOutput("foo\n");
   }
+
+  public void testCompileSkipsUnsupportedCommands() {
+    final VimScript script = VimScriptParser.compile("set nu\n" +
+                                                     "echo 'x'\n" +
+                                                     "\tlet nested = 1\n" +
+                                                     ":let s = 'foo'\n");
+    assertEquals(2, script.size());
+  }
+
+  public void testSourceChangedFile() throws IOException {
+    configureByText("\n");
+    final File file = FileUtil.createTempFile("ideavimrc", "");
+    FileUtil.writeToFile(file, "let s = 'foo'\n");
+    typeText(commandToKeys("source " + file.getPath()));
+    typeText(commandToKeys("echo s"));
+    assertExOutput("foo\n");
+
+    FileUtil.writeToFile(file, "let s = 'bar'\n");
+    typeText(commandToKeys("source " + file.getPath()));
+    typeText(commandToKeys("echo s"));
+    assertExOutput("bar\n");
+  }
+
+  public void testEchoArithmetic() {
+    configureByText("\n");
+    typeText(commandToKeys("echo (1 + 2) * 3 - 10 / 4 % 3"));
+    assertExOutput("7\n");
+  }
+
+  public void testLetScopedVariablesConcatenation() {
+    configureByText("\n");
+    typeText(commandToKeys("let g:a = 'foo'"));
+    typeText(commandToKeys("let s:b = a . \"bar\" .. 1"));
+    typeText(commandToKeys("echo s:b"));
+    assertExOutput("foobar1\n");
+  }
+
+  public void testEchoComparison() {
+    configureByText("\n");
+    typeText(commandToKeys("echo 'abc' ==? 'ABC' && 10 > '9' && !('a' ==# 'A')"));
+    assertExOutput("1\n");
+  }
+
+  public void testIfElseInScript() {
+    configureByText("\n");
+    VimScriptParser.executeText("let x = 2\n" +
+                                "if x > 1\n" +
+                                "\tlet y = 'big'\n" +
+                                "\tif x == 3\n" +
+                                "\t\tlet y = 'three'\n" +
+                                "\tendif\n" +
+                                "else\n" +
+                                "\tlet y = 'small'\n" +
+                                "endif\n");
+    typeText(commandToKeys("echo y"));
+    assertExOutput("big\n");
+  }
+
+  public void testIfWithUnsupportedConditionSkipsElse() {
+    configureByText("\n");
+    VimScriptParser.executeText("let y = 'none'\n" +
+                                "if has('gui')\n" +
+                                "\tlet y = 'gui'\n" +
+                                "else\n" +
+                                "\tlet y = 'terminal'\n" +
+                                "endif\n");
+    typeText(commandToKeys("echo y"));
+    assertExOutput("none\n");
+  }
 }
@@ -187,6 +187,17 @@ class VimMultipleCursorsExtensionTest : VimTestCase() {
     myFixture.checkResult(after)
   }
 
+  fun testSelectAllManyOccurrences() {
+    configureByText("<caret>foo bar\n" + "foo bar\n".repeat(499))
+
+    typeText(parseKeys("<Plug>AllWholeOccurrences"))
+
+    val caretModel = myFixture.editor.caretModel
+    assertEquals(500, caretModel.caretCount)
+    caretModel.allCarets.forEach { assertEquals("foo", it.selectedText) }
+    assertEquals(499 * 8 + 2, caretModel.primaryCaret.offset)
+  }
+
   fun testSelectAllNotWhole() {
     val before = """Int
       |Integer
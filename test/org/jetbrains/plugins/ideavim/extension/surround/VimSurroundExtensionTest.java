@@ -84,6 +84,15 @@ public class VimSurroundExtensionTest extends VimTestCase {
 
   /* visual surround */
 
+  public void testSurroundWordWithMultipleCarets() {
+    final String before =
+      "<caret>one <caret>two <caret>three\n";
+    final String after =
+      "<caret>\"one\" <caret>\"two\" <caret>\"three\"\n";
+
+    doTest(parseKeys("ysiw\""), before, after);
+  }
+
   public void testVisualSurroundWordParens() {
     final String before =
       "if <caret>condition {\n" +
@@ -102,6 +111,18 @@ public class VimSurroundExtensionTest extends VimTestCase {
     assertMode(CommandState.Mode.COMMAND);
   }
 
+  public void testVisualBlockSurround() {
+    final String before =
+      "<caret>abc\n" +
+      "def\n";
+    final String after =
+      "<caret>\"ab\"c\n" +
+      "\"de\"f\n";
+
+    doTest(parseKeys("<C-V>ljS\""), before, after);
+    assertMode(CommandState.Mode.COMMAND);
+  }
+
   /* Delete surroundings */
 
   public void testDeleteSurroundingParens() {
@@ -117,6 +138,15 @@ public class VimSurroundExtensionTest extends VimTestCase {
     doTest(parseKeys("ds)"), before, after);
   }
 
+  public void testDeleteSurroundingParensWithMultipleCarets() {
+    final String before =
+      "(<caret>a) (<caret>b)\n";
+    final String after =
+      "<caret>a <caret>b\n";
+
+    doTest(parseKeys("dsb"), before, after);
+  }
+
   public void testDeleteSurroundingQuote() {
     final String before =
       "if (\"<caret>foo\".equals(foo)) {\n" +
@@ -253,6 +283,15 @@ public class VimSurroundExtensionTest extends VimTestCase {
     doTest(parseKeys("cst\\<b>"), before, after);
   }
 
+  public void testChangeSurroundingQuotesWithMultipleCarets() {
+    final String before =
+      "\"<caret>foo\" \"<caret>bar\"\n";
+    final String after =
+      "<caret>'foo' <caret>'bar'\n";
+
+    doTest(parseKeys("cs\"'"), before, after);
+  }
+
   // TODO if/when we add proper repeat support
   //public void testRepeatChangeSurroundingParens() {
   //  final String before =
@@ -0,0 +1,130 @@
+package org.jetbrains.plugins.ideavim.group;
+
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.util.text.StringUtil;
+import com.maddyhome.idea.vim.VimPlugin;
+import com.maddyhome.idea.vim.command.SelectionType;
+import com.maddyhome.idea.vim.common.Register;
+import com.maddyhome.idea.vim.common.TextRange;
+import com.maddyhome.idea.vim.group.RegisterGroup;
+import com.maddyhome.idea.vim.option.Options;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.ideavim.VimTestCase;
+
+import javax.swing.*;
+import java.util.List;
+
+import static com.maddyhome.idea.vim.helper.StringHelper.parseKeys;
+
+public class RegisterGroupTest extends VimTestCase {
+  public void testSaveMacroAsKeyNotation() {
+    final List<KeyStroke> keys = parseKeys("i\\<a\\\\b<Esc><C-O>");
+    VimPlugin.getRegister().setKeys('q', keys);
+
+    final Element element = saveRegisters();
+    final Element keysElement = getRegisterElement(element, 'q').getChild("keys");
+    assertNotNull(keysElement);
+    assertTrue(keysElement.getChildren("key").isEmpty());
+
+    final Register register = loadRegisters(element).getRegister('q');
+    assertNotNull(register);
+    assertEquals(keys, register.getKeys());
+  }
+
+  public void testSaveTruncatesLongRegister() {
+    final Editor editor = configureByText("\n");
+    final String text = StringUtil.repeat("line\n", 60);
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), text, SelectionType.LINE_WISE, 'a',
+                                              false);
+
+    final Register register = loadRegisters(saveRegisters()).getRegister('a');
+    assertNotNull(register);
+    assertEquals(StringUtil.repeat("line\n", 50), register.getText());
+  }
+
+  public void testSaveSkipsHugeRegister() {
+    final Editor editor = configureByText("\n");
+    final String text = StringUtil.repeat("x", 20 * 1024);
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), text, SelectionType.CHARACTER_WISE, 'a',
+                                              false);
+
+    assertNull(loadRegisters(saveRegisters()).getRegister('a'));
+  }
+
+  // |'viminfo'|
+  public void testViminfoLimitsSavedLines() {
+    final Editor editor = configureByText("\n");
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), "one\ntwo\nthree\n",
+                                              SelectionType.LINE_WISE, 'a', false);
+    Options.getInstance().getListOption(Options.VIMINFO).set("'100,<2,s10");
+
+    final Register register = loadRegisters(saveRegisters()).getRegister('a');
+    assertNotNull(register);
+    assertEquals("one\ntwo\n", register.getText());
+  }
+
+  // |'viminfo'|
+  public void testViminfoWithoutRegisters() {
+    final Editor editor = configureByText("\n");
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), "one\n", SelectionType.LINE_WISE, 'a',
+                                              false);
+    Options.getInstance().getListOption(Options.VIMINFO).set("'100,<0");
+
+    final Element element = saveRegisters();
+    assertTrue(element.getChild("registers").getChildren().isEmpty());
+    assertNull(loadRegisters(element).getRegister('a'));
+  }
+
+  // |'viminfo'|
+  public void testViminfoDoesNotLimitLoadedRegisters() {
+    final Editor editor = configureByText("\n");
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), "one\ntwo\n", SelectionType.LINE_WISE, 'a',
+                                              false);
+    final Element element = saveRegisters();
+    // The saved state is loaded before the rc file can set 'viminfo'
+    Options.getInstance().getListOption(Options.VIMINFO).set("'100,<1");
+
+    final Register register = loadRegisters(element).getRegister('a');
+    assertNotNull(register);
+    assertEquals("one\ntwo\n", register.getText());
+  }
+
+  // |'viminfo'|
+  public void testViminfoIgnoresNegativeLineLimit() {
+    final Editor editor = configureByText("\n");
+    VimPlugin.getRegister().storeTextInternal(editor, new TextRange(-1, -1), "one\ntwo", SelectionType.CHARACTER_WISE,
+                                              'a', false);
+    Options.getInstance().getListOption(Options.VIMINFO).set("'100,<-1,s10");
+
+    final Register register = loadRegisters(saveRegisters()).getRegister('a');
+    assertNotNull(register);
+    assertEquals("one\ntwo", register.getText());
+  }
+
+  @NotNull
+  private static Element saveRegisters() {
+    final Element element = new Element("ideavim");
+    VimPlugin.getRegister().saveData(element);
+    return element;
+  }
+
+  @NotNull
+  private static RegisterGroup loadRegisters(@NotNull Element element) {
+    final RegisterGroup group = new RegisterGroup();
+    group.readData(element);
+    return group;
+  }
+
+  @NotNull
+  private static Element getRegisterElement(@NotNull Element element, char name) {
+    //noinspection unchecked
+    final List<Element> registers = element.getChild("registers").getChildren("register");
+    for (Element register : registers) {
+      if (String.valueOf(name).equals(register.getAttributeValue("name"))) {
+        return register;
+      }
+    }
+    throw new AssertionError("No register " + name);
+  }
+}
@@ -0,0 +1,42 @@
+package org.jetbrains.plugins.ideavim.option;
+
+import com.maddyhome.idea.vim.option.NumberOptionHandle;
+import com.maddyhome.idea.vim.option.Options;
+import com.maddyhome.idea.vim.option.TextOptionHandle;
+import com.maddyhome.idea.vim.option.ToggleOptionHandle;
+import org.jetbrains.plugins.ideavim.VimTestCase;
+
+public class OptionHandleTest extends VimTestCase {
+  public void testToggleHandleFollowsSetAndReset() {
+    final ToggleOptionHandle handle = new ToggleOptionHandle("wrapscan");
+    assertTrue(handle.isSet());
+    Options.getInstance().parseOptionLine(null, "nows", false);
+    assertFalse(handle.isSet());
+    Options.getInstance().resetAllOptions();
+    assertTrue(handle.isSet());
+  }
+
+  public void testNumberHandleFollowsSet() {
+    final NumberOptionHandle handle = new NumberOptionHandle("scrolloff");
+    Options.getInstance().parseOptionLine(null, "scrolloff=3", false);
+    assertEquals(3, handle.value());
+    Options.getInstance().parseOptionLine(null, "so+=2", false);
+    assertEquals(5, handle.value());
+  }
+
+  public void testTextHandleFollowsSet() {
+    final TextOptionHandle handle = new TextOptionHandle("selection");
+    assertTrue(handle.is("inclusive"));
+    Options.getInstance().parseOptionLine(null, "selection=exclusive", false);
+    assertTrue(handle.is("exclusive"));
+  }
+
+  public void testWrongOptionType() {
+    try {
+      new ToggleOptionHandle("scrolloff").isSet();
+      fail("Expected an exception for a number option");
+    }
+    catch (IllegalArgumentException ignored) {
+    }
+  }
+}